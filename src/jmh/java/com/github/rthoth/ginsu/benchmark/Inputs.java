@@ -0,0 +1,92 @@
+package com.github.rthoth.ginsu.benchmark;
+
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.shape.fractal.KochSnowflakeBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class Inputs {
+
+    public static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private Inputs() {
+
+    }
+
+    public static Polygon create(String shape, int points, Envelope envelope) {
+        switch (shape) {
+            case "snowflake":
+                return snowflake(points, envelope);
+            case "star":
+                return star(points, envelope, 42L);
+            case "holes":
+                return holes(points, envelope);
+            default:
+                throw new IllegalArgumentException(shape);
+        }
+    }
+
+    public static Polygon holes(int points, Envelope envelope) {
+        var n = Math.max(1, (int) Math.sqrt(points / 5D));
+        var width = envelope.getWidth() / (2 * n + 1);
+        var height = envelope.getHeight() / (2 * n + 1);
+        var holes = new LinearRing[n * n];
+
+        for (var i = 0; i < n; i++) {
+            for (var j = 0; j < n; j++) {
+                var x = envelope.getMinX() + (2 * i + 1) * width;
+                var y = envelope.getMinY() + (2 * j + 1) * height;
+                holes[i * n + j] = GEOMETRY_FACTORY.createLinearRing(new Coordinate[]{
+                        new Coordinate(x, y),
+                        new Coordinate(x, y + height),
+                        new Coordinate(x + width, y + height),
+                        new Coordinate(x + width, y),
+                        new Coordinate(x, y)
+                });
+            }
+        }
+
+        var shell = (LinearRing) ((Polygon) GEOMETRY_FACTORY.toGeometry(envelope)).getExteriorRing();
+        return GEOMETRY_FACTORY.createPolygon(shell, holes);
+    }
+
+    public static double[] knives(double min, double max, int cells) {
+        var array = new double[cells - 1];
+        var size = (max - min) / cells;
+        for (var i = 0; i < array.length; i++) {
+            array[i] = min + size * (i + 1);
+        }
+
+        return array;
+    }
+
+    public static Polygon snowflake(int points, Envelope envelope) {
+        var builder = new KochSnowflakeBuilder(GEOMETRY_FACTORY);
+        builder.setExtent(envelope);
+        builder.setNumPoints(points);
+        return (Polygon) builder.getGeometry();
+    }
+
+    public static Polygon star(int points, Envelope envelope, long seed) {
+        var random = new Random(seed);
+        var angles = new double[points];
+        for (var i = 0; i < points; i++) {
+            angles[i] = random.nextDouble() * 2 * Math.PI;
+        }
+        Arrays.sort(angles);
+
+        var centre = envelope.centre();
+        var rx = envelope.getWidth() / 2;
+        var ry = envelope.getHeight() / 2;
+        var coordinates = new Coordinate[points + 1];
+
+        for (var i = 0; i < points; i++) {
+            var radius = 0.25D + 0.75D * random.nextDouble();
+            coordinates[i] = new Coordinate(centre.x + rx * radius * Math.cos(angles[i]), centre.y + ry * radius * Math.sin(angles[i]));
+        }
+
+        coordinates[points] = coordinates[0];
+        return GEOMETRY_FACTORY.createPolygon(coordinates);
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.rthoth.ginsu.benchmark;
+
+import com.github.rthoth.ginsu.Grid;
+import com.github.rthoth.ginsu.Merger;
+import com.github.rthoth.ginsu.Slicer;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergerBenchmark {
+
+    @Param({"snowflake", "star", "holes"})
+    public String shape;
+
+    @Param({"10000", "100000"})
+    public int points;
+
+    @Param({"1", "4", "16", "64", "256"})
+    public int grid;
+
+    private Grid<MultiPolygon> sliced;
+    private Merger merger;
+
+    @Setup
+    public void setup() {
+        var envelope = new Envelope(-1000, 1000, -1000, 1000);
+        var polygon = Inputs.create(shape, points, envelope);
+        var knives = Inputs.knives(-1000, 1000, grid);
+        var slicer = new Slicer(knives, knives);
+        sliced = slicer.polygonal(polygon);
+        merger = slicer.merger();
+    }
+
+    @Benchmark
+    public MultiPolygon hierarchical(Cells cells) {
+        var result = merger.hierarchical(sliced, Inputs.GEOMETRY_FACTORY);
+        cells.cells += (long) grid * grid;
+        return result;
+    }
+
+    @Benchmark
+    public MultiPolygon polygonal(Cells cells) {
+        var result = merger.polygonal(sliced, Inputs.GEOMETRY_FACTORY);
+        cells.cells += (long) grid * grid;
+        return result;
+    }
+}
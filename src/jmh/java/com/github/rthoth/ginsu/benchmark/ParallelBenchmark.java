@@ -0,0 +1,87 @@
+package com.github.rthoth.ginsu.benchmark;
+
+import com.github.rthoth.ginsu.Parallel;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+
+    @Param({"snowflake", "star", "holes"})
+    public String shape;
+
+    @Param({"100000"})
+    public int points;
+
+    @Param({"1", "2", "4"})
+    public int grid;
+
+    @Param({"10000", "50000"})
+    public int limit;
+
+    @Param({"grid", "quantile"})
+    public String pattern;
+
+    @Param({"0"})
+    public int threads;
+
+    @Param({"0"})
+    public int parallelism;
+
+    private Polygon a;
+    private Polygon b;
+    private ExecutorService executor;
+    private ForkJoinPool pool;
+
+    private static MultiPolygon toMultiPolygon(Geometry geometry) {
+        if (geometry instanceof MultiPolygon)
+            return (MultiPolygon) geometry;
+        else if (geometry instanceof Polygon)
+            return geometry.getFactory().createMultiPolygon(new Polygon[]{(Polygon) geometry});
+        else
+            return geometry.getFactory().createMultiPolygon();
+    }
+
+    @Setup
+    public void setup() {
+        a = Inputs.create(shape, points, new Envelope(-1000, 1000, -1000, 1000));
+        b = Inputs.create(shape, points, new Envelope(-990, 1010, -990, 1010));
+        executor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public MultiPolygon difference() {
+        var gridPattern = pattern.equals("quantile") ? Parallel.quantile(grid, grid) : Parallel.grid(grid, grid);
+        var result = parallelism > 0 ?
+                Parallel.polygonal(gridPattern, limit, parallelism, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), executor) :
+                Parallel.polygonal(gridPattern, limit, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), executor);
+
+        return result.toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public MultiPolygon forkJoin() {
+        var gridPattern = pattern.equals("quantile") ? Parallel.quantile(grid, grid) : Parallel.grid(grid, grid);
+        return Parallel.forkJoin(gridPattern, limit, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), pool);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.rthoth.ginsu.benchmark;
+
+import com.github.rthoth.ginsu.Grid;
+import com.github.rthoth.ginsu.Order;
+import com.github.rthoth.ginsu.Slicer;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlicerBenchmark {
+
+    @Param({"snowflake", "star", "holes"})
+    public String shape;
+
+    @Param({"10000", "100000"})
+    public int points;
+
+    @Param({"1", "4", "16", "64", "256"})
+    public int grid;
+
+    @Param({"XY", "YX"})
+    public Order order;
+
+    private Polygon polygon;
+    private Slicer slicer;
+
+    @Setup
+    public void setup() {
+        var envelope = new Envelope(-1000, 1000, -1000, 1000);
+        polygon = Inputs.create(shape, points, envelope);
+        var knives = Inputs.knives(-1000, 1000, grid);
+        slicer = new Slicer(knives, knives);
+    }
+
+    @Benchmark
+    public Grid<MultiPolygon> polygonal(Cells cells) {
+        var result = slicer.polygonal(polygon, order);
+        cells.cells += (long) grid * grid;
+        return result;
+    }
+}
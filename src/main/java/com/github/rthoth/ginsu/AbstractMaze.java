@@ -18,9 +18,15 @@ public abstract class AbstractMaze<I> {
     private final double offset;
     private final PVector<Lane> xLanes;
     private final PVector<Lane> yLanes;
-    private final TreeMap<Q, N> index = new TreeMap<>(comparator());
     private final HashMap<SingleE, Seq> singleToSeq = new HashMap<>();
 
+    // The nodes are found through a hash grid of cells larger than the offset, each bucket chains its nodes.
+    private final double cell;
+    private final LongTable<N> buckets = new LongTable<>();
+    // The nodes are sorted by comparator() only when they are iterated after a change.
+    private final ArrayList<N> nodes = new ArrayList<>();
+    private boolean sorted = true;
+
     private final SideHandler xGreaterHandler = new SideHandler() {
 
         @Override
@@ -115,6 +121,7 @@ public abstract class AbstractMaze<I> {
 
     public AbstractMaze(PVector<Knife.X> x, PVector<Knife.Y> y, double offset) {
         this.offset = offset;
+        cell = offset > 0D ? 4D * offset : 1D;
         this.xLanes = Ginsu.map(x, Lane::new);
         this.yLanes = Ginsu.map(y, Lane::new);
     }
@@ -122,18 +129,18 @@ public abstract class AbstractMaze<I> {
     public void add(DetectionShape shape) {
         for (var detection : shape.detections) {
 
-            var singles = TreePVector.<SingleE>empty();
+            var singles = new ArrayList<SingleE>();
 
             for (var event : detection.events.getVector()) {
                 var n = searchN(event.getCoordinate());
 
                 final var singleE = new SingleE(event, shape, detection, n);
                 register(singleE, n);
-                singles = singles.plus(singleE);
+                singles.add(singleE);
             }
 
             if (!singles.isEmpty()) {
-                var seq = new Seq(singles, detection.isRing);
+                var seq = new Seq(Ginsu.freeze(singles), detection.isRing);
                 for (var single : singles) {
                     singleToSeq.put(single, seq);
                 }
@@ -160,9 +167,19 @@ public abstract class AbstractMaze<I> {
         }
     }
 
+    // The lanes are ordered as their knives, the lane of the node is found by a binary search.
     private void add(SingleE e, N n, PVector<Lane> lanes) {
-        for (var lane : lanes) {
-            if (lane.knife.positionOf(n.q.coordinate) == 0) {
+        int low = 0, high = lanes.size();
+        while (low < high) {
+            final var middle = (low + high) >>> 1;
+            final var lane = lanes.get(middle);
+            final var position = lane.knife.positionOf(n.q.coordinate);
+
+            if (position > 0) {
+                low = middle + 1;
+            } else if (position < 0) {
+                high = middle;
+            } else {
                 lane.index.put(n.q, n);
                 n.addLane(lane);
                 return;
@@ -197,7 +214,20 @@ public abstract class AbstractMaze<I> {
     }
 
     public Iterable<N> iterable() {
-        return Collections.unmodifiableCollection(index.values());
+        return Collections.unmodifiableList(nodes());
+    }
+
+    private long key(double value) {
+        return (long) Math.floor(value / cell);
+    }
+
+    private ArrayList<N> nodes() {
+        if (!sorted) {
+            nodes.sort(Comparator.comparing(n -> n.q, comparator()));
+            sorted = true;
+        }
+
+        return nodes;
     }
 
     private DoubleE newDoubleE(SingleE _1, SingleE _2, Dimension other) {
@@ -258,20 +288,30 @@ public abstract class AbstractMaze<I> {
     }
 
     private N searchN(Coordinate coordinate) {
-        var q = new Q(coordinate);
-        var n = index.get(q);
-
-        if (n == null) {
-            n = new N(q);
-            index.put(q, n);
+        final var x = coordinate.getX();
+        final var y = coordinate.getY();
+        // The margin keeps a node exactly at offset inside the searched cells.
+        final var margin = 1.5D * offset;
+
+        for (long ix = key(x - margin), lx = key(x + margin); ix <= lx; ix++) {
+            for (long iy = key(y - margin), ly = key(y + margin); iy <= ly; iy++) {
+                for (var n = buckets.get(LongTable.cell(ix, iy)); n != null; n = n.chained) {
+                    if (Ginsu.compare(x, offset, n.q.coordinate.getX()) == 0 && Ginsu.compare(y, offset, n.q.coordinate.getY()) == 0)
+                        return n;
+                }
+            }
         }
 
+        final var n = new N(new Q(coordinate));
+        n.chained = buckets.put(LongTable.cell(key(x), key(y)), n);
+        nodes.add(n);
+        sorted = false;
         return n;
     }
 
     @SuppressWarnings("unused")
     public String toWKT() {
-        var iterator = index.values().iterator();
+        var iterator = nodes().iterator();
         var builder = new StringBuilder();
         builder.append("MULTIPOINT M(");
 
@@ -297,7 +337,7 @@ public abstract class AbstractMaze<I> {
 
         return () -> new Iterator<>() {
 
-            private final Iterator<N> underlying = index.values().iterator();
+            private final Iterator<N> underlying = nodes().iterator();
             private N next;
             private boolean _hasNext = false;
 
@@ -503,6 +543,8 @@ public abstract class AbstractMaze<I> {
 
         private final Q q;
         private PSet<Lane> lanes = HashTreePSet.empty();
+        // The next node of the same bucket.
+        private N chained;
 
         private boolean unvisited = true;
         private E xL;
@@ -1,46 +1,32 @@
 package com.github.rthoth.ginsu;
 
-import org.pcollections.HashTreePMap;
-import org.pcollections.PMap;
 import org.pcollections.PVector;
 
+import java.util.IdentityHashMap;
 import java.util.Optional;
 
+/**
+ * An ordered sequence whose neighbours come from the array positions.
+ * <p>
+ * Short sequences (the usual case) find an element by a linear scan, the longer ones build an identity map of positions
+ * on their first search.
+ */
 public abstract class AbstractSeq<T> {
 
+    private static final int SCAN_LIMIT = 8;
+
     private final PVector<T> vector;
-    private final PMap<T, N<T>> map;
+    private final Object[] array;
+    private final boolean isClosed;
+    private IdentityHashMap<Object, Integer> positions = null;
 
     public AbstractSeq(PVector<T> vector, boolean isClosed) {
-        final var iterator = vector.iterator();
         this.vector = vector;
+        this.isClosed = isClosed;
+        array = vector.toArray();
 
-        var map = HashTreePMap.<T, N<T>>empty();
-
-        if (iterator.hasNext()) {
-            final var first = new N<>(iterator.next());
-            var previous = first;
-            map = map.plus(first.value, first);
-
-            while (iterator.hasNext()) {
-                var current = new N<>(iterator.next());
-                previous.next = current.value;
-                current.previous = previous.value;
-                map = map.plus(current.value, current);
-                previous = current;
-            }
-
-            if (isClosed) {
-                if (map.size() > 1) {
-                    first.previous = previous.value;
-                    previous.next = first.value;
-                } else {
-                    throw new GinsuException.IllegalState("Invalid sequence, a closed sequence should has more than 1 element!");
-                }
-            }
-        }
-
-        this.map = map;
+        if (isClosed && array.length == 1)
+            throw new GinsuException.IllegalState("Invalid sequence, a closed sequence should has more than 1 element!");
     }
 
     public T get(int index) {
@@ -52,34 +38,63 @@ public abstract class AbstractSeq<T> {
     }
 
     public boolean isEmpty() {
-        return vector.isEmpty();
+        return array.length == 0;
     }
 
+    @SuppressWarnings("unchecked")
     public Optional<T> next(T value) {
-        final var n = map.get(value);
-        return n != null ? Optional.ofNullable(n.next) : Optional.empty();
+        final var position = positionOf(value);
+        if (position >= 0) {
+            if (position < array.length - 1)
+                return Optional.of((T) array[position + 1]);
+            else if (isClosed)
+                return Optional.of((T) array[0]);
+        }
+
+        return Optional.empty();
     }
 
     public boolean nonEmpty() {
-        return !vector.isEmpty();
+        return array.length != 0;
     }
 
-    public Optional<T> previous(T value) {
-        final var n = map.get(value);
-        return n != null ? Optional.ofNullable(n.previous) : Optional.empty();
-    }
+    protected int positionOf(T value) {
+        if (array.length <= SCAN_LIMIT) {
+            for (var i = 0; i < array.length; i++) {
+                if (array[i] == value)
+                    return i;
+            }
 
-    public int size() {
-        return vector.size();
+            return -1;
+        } else {
+            return positions().getOrDefault(value, -1);
+        }
     }
 
-    private static class N<T> {
-        final T value;
-        T previous;
-        T next;
+    private synchronized IdentityHashMap<Object, Integer> positions() {
+        if (positions == null) {
+            positions = new IdentityHashMap<>(array.length);
+            for (var i = 0; i < array.length; i++)
+                positions.put(array[i], i);
+        }
+
+        return positions;
+    }
 
-        private N(T value) {
-            this.value = value;
+    @SuppressWarnings("unchecked")
+    public Optional<T> previous(T value) {
+        final var position = positionOf(value);
+        if (position >= 0) {
+            if (position > 0)
+                return Optional.of((T) array[position - 1]);
+            else if (isClosed)
+                return Optional.of((T) array[array.length - 1]);
         }
+
+        return Optional.empty();
+    }
+
+    public int size() {
+        return array.length;
     }
 }
@@ -3,14 +3,13 @@ package com.github.rthoth.ginsu;
 import org.locationtech.jts.algorithm.Orientation;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
-import org.pcollections.PVector;
-import org.pcollections.TreePVector;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 
 public class CSBuilder {
 
-    private PVector<Segment> segments = TreePVector.empty();
+    private final ArrayList<Segment> segments = new ArrayList<>();
 
     public void add(Coordinate coordinate) {
         if (coordinate != null)
@@ -19,27 +18,27 @@ public class CSBuilder {
 
     public void add(Segment segment) {
         if (segment != null)
-            segments = segments.plus(segment);
+            segments.add(segment);
     }
 
     public void addBackward(int start, int stop, CoordinateSequence sequence) {
-        segments = segments.plus(Segment.backward(start, stop, sequence));
+        segments.add(Segment.backward(start, stop, sequence));
     }
 
     public void addForward(int start, int stop, CoordinateSequence sequence) {
-        segments = segments.plus(Segment.forward(start, stop, sequence));
+        segments.add(Segment.forward(start, stop, sequence));
     }
 
     public void addLine(Coordinate start, Coordinate stop) {
-        segments = segments.plus(new Segment.Line(start, stop));
+        segments.add(new Segment.Line(start, stop));
     }
 
     public void addPoint(Coordinate point) {
-        segments = segments.plus(new Segment.Point(point));
+        segments.add(new Segment.Point(point));
     }
 
     public CoordinateSequence build() {
-        return new SegmentedCoordinateSequence(segments);
+        return new SegmentedCoordinateSequence(Ginsu.freeze(segments));
     }
 
     public SegmentedCoordinateSequence close() {
@@ -49,22 +48,29 @@ public class CSBuilder {
 
             if (!first.getCoordinate(0).equals2D(last.getCoordinate(last.size() - 1))) {
                 if (first instanceof Segment.View) {
-                    return new SegmentedCoordinateSequence(segments.plus(((Segment.View) first).point(0)));
+                    return close(((Segment.View) first).point(0));
                 } else if (first instanceof Segment.PointView || first instanceof Segment.Point) {
-                    return new SegmentedCoordinateSequence(segments.plus(first));
+                    return close(first);
                 } else if (first instanceof Segment.Line) {
-                    return new SegmentedCoordinateSequence(segments.plus(((Segment.Line) first).point(0)));
+                    return close(((Segment.Line) first).point(0));
                 } else {
                     throw new GinsuException.IllegalState("Invalid segments!");
                 }
             } else {
-                return new SegmentedCoordinateSequence(segments);
+                return new SegmentedCoordinateSequence(Ginsu.freeze(segments));
             }
         } else {
             throw new GinsuException.IllegalState("It is empty!");
         }
     }
 
+    private SegmentedCoordinateSequence close(Segment last) {
+        var closed = new ArrayList<Segment>(segments.size() + 1);
+        closed.addAll(segments);
+        closed.add(last);
+        return new SegmentedCoordinateSequence(Ginsu.freeze(closed));
+    }
+
     public Coordinate getLastCoordinate() {
         if (!segments.isEmpty()) {
             var last = segments.get(segments.size() - 1);
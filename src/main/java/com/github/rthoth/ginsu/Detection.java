@@ -1,10 +1,12 @@
 package com.github.rthoth.ginsu;
 
+import com.github.rthoth.ginsu.Dimension.Side;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.pcollections.PVector;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 public final class Detection {
 
@@ -17,7 +19,11 @@ public final class Detection {
     public final CornerSet cornerSet;
 
     public Detection(CoordinateSequence sequence, PVector<Event> events, boolean isRing, boolean startsInside, CornerSet cornerSet) {
-        this.events = new Seq(events, isRing);
+        this(sequence, Seq.of(events, isRing), isRing, startsInside, cornerSet);
+    }
+
+    Detection(CoordinateSequence sequence, Seq events, boolean isRing, boolean startsInside, CornerSet cornerSet) {
+        this.events = events;
         this.sequence = sequence;
         this.startsInside = startsInside;
         this.isRing = isRing;
@@ -79,10 +85,172 @@ public final class Detection {
         }
     }
 
-    public static final class Seq extends AbstractSeq<Event> {
+    /**
+     * The events of a detection as a table, one array per field, their neighbours come from the positions. An
+     * {@link Event} is only created when it is asked for, and then kept so the same position gives the same event.
+     */
+    public static final class Seq {
+
+        private static final Event.Type[] TYPES = Event.Type.values();
+        private static final Dimension[] DIMENSIONS = Dimension.values();
+        private static final Side[] SIDES = Side.values();
+
+        private final Event.Factory factory;
+        private final boolean isClosed;
+        private final int size;
+        private final byte[] types;
+        private final int[] indexes;
+        private final double[] xs;
+        private final double[] ys;
+        // The coordinate of a reference is the one of its index.
+        private final boolean[] references;
+        private final byte[] dimensions;
+        // The x side in the high bits, the y side in the low ones.
+        private final byte[] sides;
+        private Event[] events = null;
+
+        Seq(Event.Factory factory, boolean isClosed, int size, byte[] types, int[] indexes, double[] xs, double[] ys,
+            boolean[] references, byte[] dimensions, byte[] sides) {
+            this.factory = factory;
+            this.isClosed = isClosed;
+            this.size = size;
+            this.types = types;
+            this.indexes = indexes;
+            this.xs = xs;
+            this.ys = ys;
+            this.references = references;
+            this.dimensions = dimensions;
+            this.sides = sides;
+
+            if (isClosed && size == 1)
+                throw new GinsuException.IllegalState("Invalid sequence, a closed sequence should has more than 1 element!");
+        }
+
+        public static Seq of(PVector<Event> vector, boolean isClosed) {
+            final var size = vector.size();
+            final var types = new byte[size];
+            final var indexes = new int[size];
+            final var xs = new double[size];
+            final var ys = new double[size];
+            final var references = new boolean[size];
+            final var dimensions = new byte[size];
+            final var sides = new byte[size];
+
+            for (var i = 0; i < size; i++) {
+                final var event = vector.get(i);
+                types[i] = (byte) event.type.ordinal();
+                indexes[i] = event.index;
+                references[i] = event.coordinate == null;
+                if (!references[i]) {
+                    xs[i] = event.coordinate.getX();
+                    ys[i] = event.coordinate.getY();
+                }
+
+                dimensions[i] = (byte) event.dimension.ordinal();
+                sides[i] = side(event.xSide, event.ySide);
+            }
+
+            return new Seq(size > 0 ? vector.get(0).factory : null, isClosed, size, types, indexes, xs, ys, references, dimensions, sides);
+        }
+
+        static byte side(Side xSide, Side ySide) {
+            return (byte) (xSide.ordinal() << 4 | ySide.ordinal());
+        }
+
+        /**
+         * The crossing coordinate of the event at position, null when the event refers to a coordinate of the
+         * sequence.
+         */
+        public Coordinate coordinate(int position) {
+            return references[position] ? null : new Coordinate(xs[position], ys[position]);
+        }
+
+        public synchronized Event get(int position) {
+            if (events == null)
+                events = new Event[size];
+
+            var event = events[position];
+            if (event == null) {
+                final var side = sides[position];
+                event = factory.create(TYPES[types[position]], indexes[position], coordinate(position),
+                        DIMENSIONS[dimensions[position]], SIDES[side >> 4], SIDES[side & 0xF], position);
+                events[position] = event;
+            }
+
+            return event;
+        }
+
+        public Coordinate getCoordinate(int position) {
+            return references[position] ? factory.getCoordinate(indexes[position]) : new Coordinate(xs[position], ys[position]);
+        }
+
+        public PVector<Event> getVector() {
+            final var array = new Event[size];
+            for (var i = 0; i < size; i++)
+                array[i] = get(i);
+
+            return Ginsu.freeze(array);
+        }
+
+        public int index(int position) {
+            return indexes[position];
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public boolean isReference(int position) {
+            return references[position];
+        }
+
+        public Optional<Event> next(Event event) {
+            final var position = positionOf(event);
+            if (position >= 0) {
+                if (position < size - 1)
+                    return Optional.of(get(position + 1));
+                else if (isClosed)
+                    return Optional.of(get(0));
+            }
+
+            return Optional.empty();
+        }
+
+        public boolean nonEmpty() {
+            return size != 0;
+        }
+
+        private int positionOf(Event event) {
+            final var position = event.position;
+            return position >= 0 && position < size && get(position) == event ? position : -1;
+        }
+
+        public Optional<Event> previous(Event event) {
+            final var position = positionOf(event);
+            if (position >= 0) {
+                if (position > 0)
+                    return Optional.of(get(position - 1));
+                else if (isClosed)
+                    return Optional.of(get(size - 1));
+            }
+
+            return Optional.empty();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        Event.Type type(int position) {
+            return TYPES[types[position]];
+        }
+
+        public double x(int position) {
+            return references[position] ? factory.getSequence().getX(indexes[position]) : xs[position];
+        }
 
-        public Seq(PVector<Event> vector, boolean isClosed) {
-            super(vector, isClosed);
+        public double y(int position) {
+            return references[position] ? factory.getSequence().getY(indexes[position]) : ys[position];
         }
     }
 }
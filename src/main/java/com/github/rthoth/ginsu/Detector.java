@@ -4,9 +4,8 @@ import com.github.rthoth.ginsu.Dimension.Side;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.CoordinateSequences;
-import org.pcollections.PVector;
-import org.pcollections.TreePVector;
 
+import java.util.Arrays;
 import java.util.TreeMap;
 
 public class Detector {
@@ -67,6 +66,14 @@ public class Detector {
         return controller.end(isRing);
     }
 
+    /**
+     * Prepares this detector to detect another sequence, reusing its state instead of creating a new one.
+     */
+    public Detector reset(Event.Factory factory) {
+        controller.reset(factory);
+        return this;
+    }
+
     enum Type {
 
         UNDEFINED(null), IN(Event.Type.IN), OUT(Event.Type.OUT), CANDIDATE(Event.Type.OUT), CORNER(Event.Type.CORNER);
@@ -96,6 +103,8 @@ public class Detector {
 
         public abstract void next();
 
+        public abstract void reset(Event.Factory factory);
+
         public abstract boolean startsInside();
 
         public abstract void update(int index, Coordinate coordinate);
@@ -112,12 +121,16 @@ public class Detector {
         }
     }
 
+    /*
+     * The point of an event is kept as primitives, its coordinate is only created if the event is recorded.
+     */
     static final class EventInfo {
         Type type = Type.UNDEFINED;
 
         int index;
         boolean isReference = true;
-        Coordinate coordinate;
+        double x;
+        double y;
 
         Dimension dimension;
         Side xSide = Side.UNDEFINED;
@@ -125,19 +138,28 @@ public class Detector {
 
         int position;
 
-        public Event createEvent(Event.Factory factory) {
-            return factory.create(type.underlying, index, isReference ? null : coordinate, dimension, xSide, ySide);
+        void copyFrom(EventInfo other) {
+            type = other.type;
+            index = other.index;
+            isReference = other.isReference;
+            x = other.x;
+            y = other.y;
+            dimension = other.dimension;
+            xSide = other.xSide;
+            ySide = other.ySide;
+            position = other.position;
         }
 
         void update(Slice slice) {
-            position = slice.positionOf(coordinate);
+            position = slice.positionOf(x, y);
         }
 
-        void update(Type newType, int newIndex, Coordinate newCoordinate, Dimension newDimension, int border) {
+        void update(Type newType, int newIndex, double newX, double newY, Dimension newDimension, int border) {
             type = newType;
             index = newIndex;
             isReference = false;
-            coordinate = newCoordinate;
+            x = newX;
+            y = newY;
             update(newDimension, border, true);
         }
 
@@ -178,11 +200,16 @@ public class Detector {
             position = next.position;
         }
 
-        public EventInfo newInfo() {
-            var info = new EventInfo();
+        public void copyTo(EventInfo info) {
+            info.type = Type.UNDEFINED;
             info.index = index;
-            info.coordinate = coordinate;
-            return info;
+            info.isReference = true;
+            info.x = coordinate.getX();
+            info.y = coordinate.getY();
+            info.dimension = null;
+            info.xSide = Side.UNDEFINED;
+            info.ySide = Side.UNDEFINED;
+            info.position = 0;
         }
 
         public void update(int newIndex, Coordinate newCoordinate, Slice slice) {
@@ -192,113 +219,151 @@ public class Detector {
         }
     }
 
+    /*
+     * The events are recorded as a table of primitives, they are only created when the detection ends.
+     */
     private static class Recorder {
 
-        final Event.Factory factory;
+        private static final Event.Type[] TYPES = Event.Type.values();
+
+        Event.Factory factory;
         final boolean hasCorner;
 
-        PVector<Event> events = TreePVector.empty();
-        Event candidate = null;
-        Event last = null;
+        int size = 0;
+        byte[] types = new byte[8];
+        int[] indexes = new int[8];
+        double[] xs = new double[8];
+        double[] ys = new double[8];
+        // The coordinate of a reference is the one of its index.
+        boolean[] references = new boolean[8];
+        byte[] dimensions = new byte[8];
+        byte[] sides = new byte[8];
+
+        final EventInfo candidate = new EventInfo();
+        boolean hasCandidate = false;
 
         Recorder(Event.Factory factory, boolean hasCorner) {
             this.hasCorner = hasCorner;
             this.factory = factory;
         }
 
-        void add(Event event) {
-            last = event;
-            events = events.plus(event);
+        void add(EventInfo info) {
+            if (size == types.length)
+                grow();
+
+            types[size] = (byte) info.type.underlying.ordinal();
+            indexes[size] = info.index;
+            xs[size] = info.x;
+            ys[size] = info.y;
+            references[size] = info.isReference;
+            dimensions[size] = (byte) info.dimension.ordinal();
+            sides[size] = Detection.Seq.side(info.xSide, info.ySide);
+            size++;
         }
 
-        void addCandidate(Event event) {
-            if (candidate == null) {
-                candidate = event;
+        void addCandidate(EventInfo info) {
+            if (!hasCandidate) {
+                candidate.copyFrom(info);
+                hasCandidate = true;
             } else {
                 throw new GinsuException.TopologyException("Already exists a candidate!");
             }
         }
 
-        void addCorner(Event event) {
+        void addCorner(EventInfo info) {
             if (hasCorner) {
-                if (candidate != null) {
+                if (hasCandidate) {
                     add(candidate);
-                    candidate = null;
-                } else if (last == null || last.index != event.index) {
-                    add(event);
+                    hasCandidate = false;
+                } else if (size == 0 || indexes[size - 1] != info.index) {
+                    add(info);
                 }
             }
         }
 
-        void addIn(Event event) {
-            if (candidate == null) {
-                add(event);
+        void addIn(EventInfo info) {
+            if (!hasCandidate) {
+                add(info);
             } else {
-                if (event.index >= 0) {
-                    if (candidate.index < event.index) {
+                if (info.index >= 0) {
+                    if (candidate.index < info.index) {
                         add(candidate);
-                        add(event);
+                        add(info);
                     }
                 } else {
                     add(candidate);
-                    add(event);
+                    add(info);
                 }
 
-                candidate = null;
+                hasCandidate = false;
             }
         }
 
-        void addOut(Event event) {
-            if (candidate == null) {
-                add(event);
-            } else if (candidate.index == event.index) {
+        void addOut(EventInfo info) {
+            if (!hasCandidate) {
+                add(info);
+            } else if (candidate.index == info.index) {
                 add(candidate);
-                candidate = null;
+                hasCandidate = false;
             } else {
                 throw new GinsuException.IllegalState("Double output!");
             }
         }
 
         void apply(EventInfo eventInfo) {
-            final var event = eventInfo.createEvent(factory);
             if (eventInfo.type == Type.IN) {
-                addIn(event);
+                addIn(eventInfo);
             } else if (eventInfo.type == Type.OUT) {
-                addOut(event);
+                addOut(eventInfo);
             } else if (eventInfo.type == Type.CANDIDATE) {
-                addCandidate(event);
+                addCandidate(eventInfo);
             } else if (eventInfo.type == Type.CORNER) {
-                addCorner(event);
+                addCorner(eventInfo);
             }
         }
 
-        PVector<Event> end(int index, boolean isRing) {
-            if (candidate != null) {
+        Detection.Seq end(int index, boolean isRing) {
+            var first = 0;
+            if (hasCandidate) {
                 if (isRing) {
-                    if (candidate.index != index || events.get(0).index != 0)
+                    if (candidate.index != index || size == 0 || indexes[0] != 0)
                         pushCandidate();
                     else
-                        remove(0);
+                        first = 1;
                 } else {
                     pushCandidate();
                 }
             } else if (isRing) {
-                if (!events.isEmpty()) {
-                    var last = events.get(events.size() - 1);
-                    if (last.type == Event.Type.CORNER && last.index == index)
-                        remove(events.size() - 1);
-                }
+                if (size > 0 && TYPES[types[size - 1]] == Event.Type.CORNER && indexes[size - 1] == index)
+                    size--;
             }
 
-            return events;
+            // The columns are reused by the next sequence, the detection keeps its own copies.
+            return new Detection.Seq(factory, isRing, size - first, Arrays.copyOfRange(types, first, size),
+                    Arrays.copyOfRange(indexes, first, size), Arrays.copyOfRange(xs, first, size), Arrays.copyOfRange(ys, first, size),
+                    Arrays.copyOfRange(references, first, size), Arrays.copyOfRange(dimensions, first, size), Arrays.copyOfRange(sides, first, size));
+        }
+
+        private void grow() {
+            final var length = types.length * 2;
+            types = Arrays.copyOf(types, length);
+            indexes = Arrays.copyOf(indexes, length);
+            xs = Arrays.copyOf(xs, length);
+            ys = Arrays.copyOf(ys, length);
+            references = Arrays.copyOf(references, length);
+            dimensions = Arrays.copyOf(dimensions, length);
+            sides = Arrays.copyOf(sides, length);
         }
 
         void pushCandidate() {
             add(candidate);
+            hasCandidate = false;
         }
 
-        public void remove(int index) {
-            events = events.minus(index);
+        void reset(Event.Factory factory) {
+            this.factory = factory;
+            size = 0;
+            hasCandidate = false;
         }
     }
 
@@ -332,6 +397,8 @@ public class Detector {
 
         private final Point previous = new Point();
         private final Point current = new Point();
+        // The segment is only used while a coordinate is checked, so it is reused.
+        private final Segment segment = new Segment(new EventInfo(), new EventInfo());
         private final Recorder recorder;
         private int firstPosition;
 
@@ -361,17 +428,17 @@ public class Detector {
         private void apply(int product, EventInfo origin, EventInfo target) {
             final int current = target.position, previous = origin.position;
             final int cIndex = target.index, pIndex = origin.index;
-            final Coordinate cCoordinate = target.coordinate, pCoordinate = origin.coordinate;
+            final double cx = target.x, cy = target.y, px = origin.x, py = origin.y;
 
             if (product == 3 || product == -3) {
                 if (current == Slice.MIDDLE) {
-                    origin.update(Type.IN, cIndex, slice.intersection(pCoordinate, cCoordinate, previous), slice.getDimension(), previous);
+                    cross(origin, Type.IN, cIndex, px, py, cx, cy, previous);
                 } else {
-                    target.update(Type.OUT, pIndex, slice.intersection(pCoordinate, cCoordinate, current), slice.getDimension(), current);
+                    cross(target, Type.OUT, pIndex, px, py, cx, cy, current);
                 }
             } else if (product == -9) {
-                origin.update(Type.IN, Event.NO_INDEX, slice.intersection(pCoordinate, cCoordinate, previous), slice.getDimension(), previous);
-                target.update(Type.OUT, Event.NO_INDEX, slice.intersection(pCoordinate, cCoordinate, current), slice.getDimension(), current);
+                cross(origin, Type.IN, Event.NO_INDEX, px, py, cx, cy, previous);
+                cross(target, Type.OUT, Event.NO_INDEX, px, py, cx, cy, current);
             } else if (product == 2 || product == -2) {
                 if (current == Slice.MIDDLE) {
                     origin.update(Type.IN, slice.getDimension(), previous);
@@ -383,11 +450,11 @@ public class Detector {
                 target.update(Type.CANDIDATE, slice.getDimension(), current);
             } else if (product == -6) {
                 if (Math.abs(current) == Slice.UPPER_BORDER) {
-                    origin.update(Type.IN, cIndex, slice.intersection(pCoordinate, cCoordinate, previous), slice.getDimension(), previous);
+                    cross(origin, Type.IN, cIndex, px, py, cx, cy, previous);
                     target.update(Type.CANDIDATE, slice.getDimension(), current);
                 } else {
                     origin.update(Type.IN, slice.getDimension(), previous);
-                    target.update(Type.OUT, pIndex, slice.intersection(pCoordinate, cCoordinate, current), slice.getDimension(), current);
+                    cross(target, Type.OUT, pIndex, px, py, cx, cy, current);
                 }
             } else if (product == 4) {
 //                if (origin.type != Type.UNDEFINED)
@@ -411,6 +478,16 @@ public class Detector {
             return apply(newSegment());
         }
 
+        // The segment crosses the knife of the border.
+        private void cross(EventInfo info, Type type, int index, double px, double py, double cx, double cy, int border) {
+            final var knife = slice.knifeOf(border);
+            final var ordinate = knife.intersection(px, py, cx, cy);
+            if (knife.dimension == Dimension.X)
+                info.update(type, index, knife.value, ordinate, Dimension.X, border);
+            else
+                info.update(type, index, ordinate, knife.value, Dimension.Y, border);
+        }
+
         @Override
         public Detection end(boolean isRing) {
             return new Detection(getSequence(), recorder.end(current.index, isRing), isRing, startsInside(), Detection.EMPTY_CORNER_SET);
@@ -432,7 +509,9 @@ public class Detector {
         }
 
         public Segment newSegment() {
-            return new Segment(previous.newInfo(), current.newInfo());
+            previous.copyTo(segment.origin);
+            current.copyTo(segment.target);
+            return segment;
         }
 
         @Override
@@ -444,6 +523,12 @@ public class Detector {
             return previous.position * current.position;
         }
 
+        @Override
+        public void reset(Event.Factory factory) {
+            if (recorder != null)
+                recorder.reset(factory);
+        }
+
         @Override
         public boolean startsInside() {
             return firstPosition == Slice.MIDDLE;
@@ -606,12 +691,31 @@ public class Detector {
             y.next();
         }
 
+        @Override
+        public void reset(Event.Factory factory) {
+            recorder.reset(factory);
+            x.reset(factory);
+            y.reset(factory);
+
+            if (hasCorner) {
+                reset(factory, xL);
+                reset(factory, xU);
+                reset(factory, yL);
+                reset(factory, yU);
+            }
+        }
+
+        private void reset(Event.Factory factory, SingleController controller) {
+            if (controller != null) controller.reset(factory);
+        }
+
         private TreeMap<Double, Event> populate(SingleController controller, boolean isRing) {
             if (controller != null) {
                 var treeMap = new TreeMap<Double, Event>();
                 var dimension = controller.slice.getDimension();
-                for (var event : controller.recorder.end(x.current.index, isRing)) {
-                    treeMap.put(dimension.ordinateOf(event.getCoordinate()), event);
+                var events = controller.recorder.end(x.current.index, isRing);
+                for (var i = 0; i < events.size(); i++) {
+                    treeMap.put(dimension.ordinateOf(events.getCoordinate(i)), events.get(i));
                 }
                 return treeMap;
             } else {
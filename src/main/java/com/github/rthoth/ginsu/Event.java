@@ -18,8 +18,10 @@ public final class Event {
     public final Dimension dimension;
     public final Side xSide;
     public final Side ySide;
+    // Position in the events of its detection, NO_INDEX for a corner.
+    public final int position;
 
-    private Event(Type type, Factory factory, int index, Coordinate coordinate, Dimension dimension, Side xSide, Side ySide) {
+    private Event(Type type, Factory factory, int index, Coordinate coordinate, Dimension dimension, Side xSide, Side ySide, int position) {
         this.factory = factory;
         this.type = type;
         this.index = index;
@@ -27,6 +29,7 @@ public final class Event {
         this.dimension = dimension;
         this.xSide = xSide;
         this.ySide = ySide;
+        this.position = position;
     }
 
     public static int compare(Event e1, Event e2) {
@@ -97,12 +100,16 @@ public final class Event {
         }
 
         public Event create(Type type, int index, Coordinate coordinate, Dimension dimension, Side xSide, Side ySide) {
+            return create(type, index, coordinate, dimension, xSide, ySide, NO_INDEX);
+        }
+
+        public Event create(Type type, int index, Coordinate coordinate, Dimension dimension, Side xSide, Side ySide, int position) {
             Objects.requireNonNull(type);
             Objects.requireNonNull(dimension);
             Objects.requireNonNull(xSide);
             Objects.requireNonNull(ySide);
 
-            return new Event(type, this, index, coordinate, dimension, xSide, ySide);
+            return new Event(type, this, index, coordinate, dimension, xSide, ySide, position);
         }
 
         public Coordinate getCoordinate(int index) {
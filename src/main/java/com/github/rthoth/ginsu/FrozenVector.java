@@ -0,0 +1,134 @@
+package com.github.rthoth.ginsu;
+
+import org.pcollections.PVector;
+import org.pcollections.TreePVector;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * An immutable array-backed PVector, the result of a mutable builder.
+ * <p>
+ * Reads are O(1), a sub list is a view over the same array and the first modification copies it into a TreePVector.
+ */
+final class FrozenVector<E> extends AbstractList<E> implements PVector<E>, RandomAccess {
+
+    private final Object[] array;
+    private final int offset;
+    private final int size;
+
+    FrozenVector(Object[] array) {
+        this(array, 0, array.length);
+    }
+
+    private FrozenVector(Object[] array, int offset, int size) {
+        this.array = array;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Deprecated
+    @Override
+    public boolean add(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Deprecated
+    @Override
+    public void add(int index, E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Deprecated
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Deprecated
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The backing array when this vector covers all of it, a copy of the elements otherwise.
+     */
+    Object[] elements() {
+        return offset == 0 && size == array.length ? array : Arrays.copyOfRange(array, offset, offset + size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        return (E) array[offset + index];
+    }
+
+    @Override
+    public PVector<E> minus(Object e) {
+        return thaw().minus(e);
+    }
+
+    @Override
+    public PVector<E> minus(int i) {
+        return thaw().minus(i);
+    }
+
+    @Override
+    public PVector<E> minusAll(Collection<?> list) {
+        return thaw().minusAll(list);
+    }
+
+    @Override
+    public PVector<E> plus(E e) {
+        return thaw().plus(e);
+    }
+
+    @Override
+    public PVector<E> plus(int i, E e) {
+        return thaw().plus(i, e);
+    }
+
+    @Override
+    public PVector<E> plusAll(Collection<? extends E> list) {
+        return thaw().plusAll(list);
+    }
+
+    @Override
+    public PVector<E> plusAll(int i, Collection<? extends E> list) {
+        return thaw().plusAll(i, list);
+    }
+
+    @Deprecated
+    @Override
+    public E set(int index, E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PVector<E> subList(int start, int end) {
+        if (start < 0 || end > size || start > end)
+            throw new IndexOutOfBoundsException("Range: [" + start + ", " + end + "), Size: " + size);
+
+        return start == 0 && end == size ? this : new FrozenVector<>(array, offset + start, end - start);
+    }
+
+    private TreePVector<E> thaw() {
+        return TreePVector.from(this);
+    }
+
+    @Override
+    public PVector<E> with(int i, E e) {
+        return thaw().with(i, e);
+    }
+}
@@ -6,7 +6,34 @@ import org.pcollections.PVector;
 
 public abstract class GeometryMerger<T extends Geometry> {
 
-    public abstract T apply(PCollection<DetectionShape> shapes, PVector<Knife.X> x, PVector<Knife.Y> y);
+    public T apply(PCollection<DetectionShape> shapes, PVector<Knife.X> x, PVector<Knife.Y> y) {
+        final var session = open(x, y);
+        for (var shape : shapes)
+            session.add(shape);
+
+        return session.finish();
+    }
 
     public abstract boolean isPolygon();
+
+    /**
+     * Starts a merge whose shapes are added one by one, they are registered as soon as they are added.
+     */
+    public abstract Session<T> open(PVector<Knife.X> x, PVector<Knife.Y> y);
+
+    public interface Session<T> {
+
+        void add(DetectionShape shape);
+
+        /**
+         * The shapes of the cell (x, y), possibly none. A session which knows the added cells may complete the parts
+         * of the result whose surrounding cells are all added.
+         */
+        default void add(int x, int y, PVector<DetectionShape> shapes) {
+            for (var shape : shapes)
+                add(shape);
+        }
+
+        T finish();
+    }
 }
@@ -15,9 +15,17 @@ public abstract class GeometrySlicer<G extends Geometry> {
 
     public abstract MultiShape apply(DetectionShape shape, Dimension dimension, double offset);
 
+    public MultiShape apply(DetectionShape shape, Slice slice, double offset) {
+        return apply(shape, slice.getDimension(), offset);
+    }
+
     public abstract boolean isPolygon();
 
     public abstract Optional<Shape> preApply(Detection detection, Shape shape);
 
+    public Optional<Shape> preApply(Detection detection, Shape shape, Slice slice) {
+        return preApply(detection, shape);
+    }
+
     public abstract G toGeometry(MultiShape multishape);
 }
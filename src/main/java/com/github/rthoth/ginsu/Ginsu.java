@@ -25,14 +25,88 @@ public class Ginsu {
     }
 
     public static <I, M> PVector<M> collect(Iterable<I> iterable, Function<I, Optional<M>> predicate) {
-        var filtered = TreePVector.<M>empty();
+        var filtered = new ArrayList<M>();
         for (var element : iterable) {
             var optional = predicate.apply(element);
             if (optional.isPresent())
-                filtered = filtered.plus(optional.get());
+                filtered.add(optional.get());
         }
 
-        return filtered;
+        return freeze(filtered);
+    }
+
+    /**
+     * Copies the rings backed by views of other sequences (as the slicer and the merger create) into sequences of the
+     * factory, the other rings are kept.
+     */
+    public static MultiPolygon compact(MultiPolygon multipolygon, CoordinateSequenceFactory factory) {
+        final var polygons = new Polygon[multipolygon.getNumGeometries()];
+        var changed = false;
+        for (var i = 0; i < polygons.length; i++) {
+            var polygon = (Polygon) multipolygon.getGeometryN(i);
+            polygons[i] = compact(polygon, factory);
+            changed |= polygons[i] != polygon;
+        }
+
+        return changed ? multipolygon.getFactory().createMultiPolygon(polygons) : multipolygon;
+    }
+
+    /**
+     * Same as {@link #compact(MultiPolygon, CoordinateSequenceFactory)} for the line strings.
+     */
+    public static MultiLineString compact(MultiLineString multiLineString, CoordinateSequenceFactory factory) {
+        final var lineStrings = new LineString[multiLineString.getNumGeometries()];
+        var changed = false;
+        for (var i = 0; i < lineStrings.length; i++) {
+            var lineString = (LineString) multiLineString.getGeometryN(i);
+            if (lineString.getCoordinateSequence() instanceof SegmentedCoordinateSequence) {
+                lineStrings[i] = lineString.getFactory().createLineString(compact(lineString.getCoordinateSequence(), factory));
+                changed = true;
+            } else {
+                lineStrings[i] = lineString;
+            }
+        }
+
+        return changed ? multiLineString.getFactory().createMultiLineString(lineStrings) : multiLineString;
+    }
+
+    public static Polygon compact(Polygon polygon, CoordinateSequenceFactory factory) {
+        if (!polygon.isEmpty()) {
+            final var geometryFactory = polygon.getFactory();
+            final var shell = polygon.getExteriorRing().getCoordinateSequence();
+            final var holes = new LinearRing[polygon.getNumInteriorRing()];
+            var changed = shell instanceof SegmentedCoordinateSequence;
+
+            for (var i = 0; i < holes.length; i++) {
+                var hole = polygon.getInteriorRingN(i);
+                if (hole.getCoordinateSequence() instanceof SegmentedCoordinateSequence) {
+                    holes[i] = geometryFactory.createLinearRing(compact(hole.getCoordinateSequence(), factory));
+                    changed = true;
+                } else {
+                    holes[i] = (LinearRing) hole;
+                }
+            }
+
+            if (changed)
+                return geometryFactory.createPolygon(geometryFactory.createLinearRing(compact(shell, factory)), holes);
+        }
+
+        return polygon;
+    }
+
+    public static CoordinateSequence compact(CoordinateSequence sequence, CoordinateSequenceFactory factory) {
+        if (sequence instanceof SegmentedCoordinateSequence) {
+            final var size = sequence.size();
+            final var compact = factory.create(size, 2);
+            for (var i = 0; i < size; i++) {
+                compact.setOrdinate(i, CoordinateSequence.X, sequence.getX(i));
+                compact.setOrdinate(i, CoordinateSequence.Y, sequence.getY(i));
+            }
+
+            return compact;
+        } else {
+            return sequence;
+        }
     }
 
     public static int compare(double reference, double offset, double value) {
@@ -40,13 +114,13 @@ public class Ginsu {
     }
 
     public static <T> PVector<T> filter(Iterable<T> iterable, Predicate<T> predicate) {
-        var result = TreePVector.<T>empty();
+        var result = new ArrayList<T>();
         for (var element : iterable) {
             if (predicate.test(element))
-                result = result.plus(element);
+                result.add(element);
         }
 
-        return result;
+        return freeze(result);
     }
 
     public static <T> T first(Iterable<T> iterable) {
@@ -78,12 +152,20 @@ public class Ginsu {
                 }
             }
 
-            return TreePVector.from(previous);
+            return freeze(previous);
         } else {
             return TreePVector.empty();
         }
     }
 
+    public static <T> PVector<T> freeze(Collection<T> collection) {
+        return freeze(collection.toArray());
+    }
+
+    static <T> PVector<T> freeze(Object[] array) {
+        return array.length > 0 ? new FrozenVector<>(array) : TreePVector.empty();
+    }
+
     public static <T> T getValue(Map.Entry<?, T> entry) {
         return entry != null ? entry.getValue() : null;
     }
@@ -100,23 +182,33 @@ public class Ginsu {
     }
 
     public static <I, M> PVector<M> map(Iterable<I> input, Function<I, M> mapper) {
-        return map(input.iterator(), mapper);
+        if (input instanceof Collection) {
+            var collection = (Collection<I>) input;
+            var array = new Object[collection.size()];
+            var index = 0;
+            for (var element : collection)
+                array[index++] = mapper.apply(element);
+
+            return freeze(array);
+        } else {
+            return map(input.iterator(), mapper);
+        }
     }
 
     public static <I, M> PVector<M> map(Iterator<I> input, Function<I, M> mapper) {
-        var vector = TreePVector.<M>empty();
+        var list = new ArrayList<M>();
         while (input.hasNext())
-            vector = vector.plus(mapper.apply(input.next()));
+            list.add(mapper.apply(input.next()));
 
-        return vector;
+        return freeze(list);
     }
 
     public static <T> PVector<T> map(double[] array, DoubleFunction<T> mapper) {
-        var vector = TreePVector.<T>empty();
-        for (var element : array)
-            vector = vector.plus(mapper.apply(element));
+        var result = new Object[array.length];
+        for (var i = 0; i < array.length; i++)
+            result[i] = mapper.apply(array[i]);
 
-        return vector;
+        return freeze(result);
     }
 
     public static Coordinate next(int index, CoordinateSequence sequence, boolean isRing) {
@@ -160,11 +252,11 @@ public class Ginsu {
 
     public static <T> PVector<T> toVector(Iterable<T> iterable) {
         if (!(iterable instanceof PVector)) {
-            var vector = TreePVector.<T>empty();
+            var list = new ArrayList<T>();
             for (var element : iterable)
-                vector = vector.plus(element);
+                list.add(element);
 
-            return vector;
+            return freeze(list);
         } else
             return (PVector<T>) iterable;
     }
@@ -44,6 +44,34 @@ public abstract class Grid<T> {
 
     public abstract Grid<T> copy();
 
+    /**
+     * Eager version of {@link #view(Function)}, the mapper is called once per cell.
+     */
+    public <M> Grid<M> map(Function<T, M> mapper) {
+        final var array = new Object[width * height];
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                array[y * width + x] = mapper.apply(_get(x, y));
+            }
+        }
+
+        return new Flat<>(width, height, array, false);
+    }
+
+    /**
+     * Eager version of {@link #combine(Grid, BiFunction)}, the mapper is called once per cell.
+     */
+    public <V, M> Grid<M> map(Grid<V> grid, BiFunction<T, V, M> mapper) {
+        final var array = new Object[width * height];
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                array[y * width + x] = mapper.apply(_get(x, y), grid._get(x, y));
+            }
+        }
+
+        return new Flat<>(width, height, array, false);
+    }
+
     public Entry<Optional<T>> get(int x, int y) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
             return new Entry<>(x, y, Optional.ofNullable(_get(x, y)));
@@ -83,6 +111,13 @@ public abstract class Grid<T> {
 
     protected abstract int mapToIndex(int x, int y);
 
+    /**
+     * Array-backed grid, when this grid was built from a frozen vector the array is shared.
+     */
+    public Grid<T> toFlat() {
+        return map(Function.identity());
+    }
+
     public String toWKT() {
         var iterator = iterable().iterator();
         var wkt = new StringBuilder();
@@ -152,8 +187,7 @@ public abstract class Grid<T> {
 
         @Override
         public Grid<M> copy() {
-            var data = Ginsu.map(iterable(), entry -> entry.value);
-            return new YX<>(width, height, data);
+            return toFlat();
         }
 
         @Override
@@ -162,6 +196,39 @@ public abstract class Grid<T> {
         }
     }
 
+    public static class Flat<T> extends Grid<T> {
+
+        private final Object[] array;
+        private final boolean xy;
+
+        private Flat(int width, int height, Object[] array, boolean xy) {
+            super(width, height, new FrozenVector<>(array));
+            this.array = array;
+            this.xy = xy;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected T _get(int x, int y) {
+            return (T) array[mapToIndex(x, y)];
+        }
+
+        @Override
+        public Grid<T> copy() {
+            return this;
+        }
+
+        @Override
+        protected int mapToIndex(int x, int y) {
+            return xy ? x * height + y : y * width + x;
+        }
+
+        @Override
+        public Grid<T> toFlat() {
+            return this;
+        }
+    }
+
     public static class XY<T> extends Grid<T> {
 
         public XY(int width, int height, PVector<T> data) {
@@ -177,6 +244,11 @@ public abstract class Grid<T> {
         protected int mapToIndex(int x, int y) {
             return x * height + y;
         }
+
+        @Override
+        public Grid<T> toFlat() {
+            return data instanceof FrozenVector ? new Flat<>(width, height, ((FrozenVector<T>) data).elements(), true) : super.toFlat();
+        }
     }
 
     public static class YX<T> extends Grid<T> {
@@ -194,5 +266,10 @@ public abstract class Grid<T> {
         protected int mapToIndex(int x, int y) {
             return y * width + x;
         }
+
+        @Override
+        public Grid<T> toFlat() {
+            return data instanceof FrozenVector ? new Flat<>(width, height, ((FrozenVector<T>) data).elements(), false) : super.toFlat();
+        }
     }
 }
@@ -28,10 +28,17 @@ public abstract class Knife<K extends Knife<?>> implements Comparable<K> {
 
     public abstract Coordinate intersection(Coordinate origin, Coordinate target);
 
+    /**
+     * The ordinate along this knife where the segment crosses it, without creating a coordinate.
+     */
+    public abstract double intersection(double xo, double yo, double xt, double yt);
+
     public abstract double ordinateOf(Coordinate coordinate);
 
     public abstract int positionOf(Coordinate coordinate);
 
+    public abstract int positionOf(double x, double y);
+
     public static class X extends Knife<X> {
 
         private final X upper;
@@ -70,12 +77,12 @@ public abstract class Knife<K extends Knife<?>> implements Comparable<K> {
 
         @Override
         public Coordinate intersection(Coordinate origin, Coordinate target) {
-            final var xo = origin.getX();
-            final var yo = origin.getY();
-            final var xt = target.getX();
-            final var yt = target.getY();
+            return new Coordinate(value, intersection(origin.getX(), origin.getY(), target.getX(), target.getY()));
+        }
 
-            return new Coordinate(value, ((yt - yo) * (value - xo)) / (xt - xo) + yo);
+        @Override
+        public double intersection(double xo, double yo, double xt, double yt) {
+            return ((yt - yo) * (value - xo)) / (xt - xo) + yo;
         }
 
         @Override
@@ -88,6 +95,11 @@ public abstract class Knife<K extends Knife<?>> implements Comparable<K> {
             return Ginsu.compare(coordinate.getX(), offset, value);
         }
 
+        @Override
+        public int positionOf(double x, double y) {
+            return Ginsu.compare(x, offset, value);
+        }
+
         @Override
         public String toString() {
             return "X(" + value + ")";
@@ -131,12 +143,12 @@ public abstract class Knife<K extends Knife<?>> implements Comparable<K> {
 
         @Override
         public Coordinate intersection(Coordinate origin, Coordinate target) {
-            final var xo = origin.getX();
-            final var yo = origin.getY();
-            final var yt = target.getY();
-            final var xt = target.getX();
+            return new Coordinate(intersection(origin.getX(), origin.getY(), target.getX(), target.getY()), value);
+        }
 
-            return new Coordinate(((xt - xo) * (value - yo)) / (yt - yo) + xo, value);
+        @Override
+        public double intersection(double xo, double yo, double xt, double yt) {
+            return ((xt - xo) * (value - yo)) / (yt - yo) + xo;
         }
 
         @Override
@@ -149,6 +161,11 @@ public abstract class Knife<K extends Knife<?>> implements Comparable<K> {
             return Ginsu.compare(coordinate.getY(), offset, value);
         }
 
+        @Override
+        public int positionOf(double x, double y) {
+            return Ginsu.compare(y, offset, value);
+        }
+
         @Override
         public String toString() {
             return "Y(" + value + ")";
@@ -0,0 +1,176 @@
+package com.github.rthoth.ginsu;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiLineString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Slices lines, every IN event starts a line and the next OUT event finishes it.
+ * <p>
+ * A run of coordinates over a border belongs to the slice the line comes from, or to the slice it goes to when the
+ * line starts on it, so the neighbour slices don't lose it.
+ */
+public class LineSlicer extends GeometrySlicer<MultiLineString> {
+
+    private final CoordinateSequenceFactory compact;
+
+    public LineSlicer(GeometryFactory factory) {
+        this(factory, null);
+    }
+
+    /**
+     * @param compact if not null the sliced lines are copied into sequences of this factory.
+     */
+    public LineSlicer(GeometryFactory factory, CoordinateSequenceFactory compact) {
+        super(factory);
+        this.compact = compact;
+    }
+
+    private static void add(CSBuilder builder, int start, int stop, CoordinateSequence sequence) {
+        if (start >= 0 && stop >= start)
+            builder.addForward(start, stop, sequence);
+    }
+
+    // First index of the border run which ends at index, if it starts the sequence.
+    private static int backward(Slice slice, CoordinateSequence sequence, int index) {
+        if (slice != null) {
+            final var position = slice.positionOf(sequence.getCoordinate(index));
+            var i = index;
+            while (i > 0 && slice.positionOf(sequence.getCoordinate(i - 1)) == position)
+                i--;
+
+            return i == 0 ? 0 : index;
+        } else {
+            return index;
+        }
+    }
+
+    // Last index of the border run which starts at index.
+    private static int forward(Slice slice, CoordinateSequence sequence, int index) {
+        if (slice != null) {
+            final var position = slice.positionOf(sequence.getCoordinate(index));
+            final var lastIndex = sequence.size() - 1;
+            var i = index;
+            while (i < lastIndex && slice.positionOf(sequence.getCoordinate(i + 1)) == position)
+                i++;
+
+            return i;
+        } else {
+            return index;
+        }
+    }
+
+    // A line which only touches the slice is ignored.
+    private static void line(CSBuilder builder, ArrayList<Shape> lines) {
+        final var sequence = builder.build();
+        if (sequence.size() > 1)
+            lines.add(Shape.of(sequence, Collections.emptyList()));
+    }
+
+    private static void slice(Detection detection, Slice slice, ArrayList<Shape> lines) {
+        final var sequence = detection.sequence;
+        final var events = detection.events;
+        final var size = events.size();
+        // It starts inside when the first event leaves the slice.
+        var builder = (size == 0 ? detection.startsInside : events.type(0) == Event.Type.OUT) ? new CSBuilder() : null;
+        var start = 0;
+
+        for (var i = 0; i < size; i++) {
+            final var type = events.type(i);
+
+            if (type == Event.Type.IN) {
+                builder = new CSBuilder();
+                if (!events.isReference(i)) {
+                    builder.add(events.coordinate(i));
+                    start = events.index(i);
+                } else {
+                    start = i == 0 ? backward(slice, sequence, events.index(i)) : events.index(i);
+                }
+            } else if (type == Event.Type.OUT) {
+                var stop = events.index(i);
+                if (events.isReference(i)) {
+                    stop = forward(slice, sequence, stop);
+
+                    // The line comes back at the end of the border run, it goes on.
+                    if (i + 1 < size && events.type(i + 1) == Event.Type.IN && events.isReference(i + 1) && events.index(i + 1) == stop) {
+                        i++;
+                        continue;
+                    }
+                }
+
+                add(builder, start, stop, sequence);
+                builder.add(events.coordinate(i));
+                line(builder, lines);
+                builder = null;
+            }
+        }
+
+        if (builder != null) {
+            add(builder, start, sequence.size() - 1, sequence);
+            line(builder, lines);
+        }
+    }
+
+    /**
+     * Without the slice the border runs are not assigned, see {@link #apply(DetectionShape, Slice, double)}.
+     */
+    @Override
+    public MultiShape apply(DetectionShape shape, Dimension dimension, double offset) {
+        return apply(shape, (Slice) null);
+    }
+
+    @Override
+    public MultiShape apply(DetectionShape shape, Slice slice, double offset) {
+        return apply(shape, slice);
+    }
+
+    private MultiShape apply(DetectionShape shape, Slice slice) {
+        final var lines = new ArrayList<Shape>();
+        for (var detection : shape.detections)
+            slice(detection, slice, lines);
+
+        return MultiShape.of(lines);
+    }
+
+    @Override
+    public boolean isPolygon() {
+        return false;
+    }
+
+    @Override
+    public Optional<Shape> preApply(Detection detection, Shape shape) {
+        if (detection.events.isEmpty()) {
+            return detection.startsInside ? Optional.of(shape) : Optional.of(Shape.EMPTY);
+        } else
+            return Optional.empty();
+    }
+
+    /*
+     * A line entirely over a knife belongs to the slice below it.
+     */
+    @Override
+    public Optional<Shape> preApply(Detection detection, Shape shape, Slice slice) {
+        if (detection.events.isEmpty() && !detection.startsInside) {
+            final var sequence = detection.sequence;
+            for (var i = 0; i < sequence.size(); i++) {
+                if (slice.positionOf(sequence.getCoordinate(i)) != Slice.UPPER_BORDER)
+                    return Optional.of(Shape.EMPTY);
+            }
+
+            return Optional.of(shape);
+        } else {
+            return preApply(detection, shape);
+        }
+    }
+
+    @Override
+    public MultiLineString toGeometry(MultiShape multishape) {
+        final var multiLineString = multishape.toMultiLineString(factory);
+        return compact == null ? multiLineString : Ginsu.compact(multiLineString, compact);
+    }
+}
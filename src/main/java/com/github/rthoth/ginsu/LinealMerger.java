@@ -0,0 +1,242 @@
+package com.github.rthoth.ginsu;
+
+import org.locationtech.jts.geom.*;
+import org.pcollections.PVector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeMap;
+
+/**
+ * Rejoins sliced lines, two line ends are joined when they meet over a knife and no other end is there.
+ */
+public class LinealMerger extends GeometryMerger<MultiLineString> {
+
+    private final GeometryFactory factory;
+    private final double offset;
+    private final CoordinateSequenceFactory compact;
+
+    public LinealMerger(GeometryFactory factory, double offset) {
+        this(factory, offset, null);
+    }
+
+    /**
+     * @param compact if not null the merged lines are copied into sequences of this factory.
+     */
+    public LinealMerger(GeometryFactory factory, double offset, CoordinateSequenceFactory compact) {
+        this.factory = factory;
+        this.offset = offset;
+        this.compact = compact;
+    }
+
+    // The knife over the coordinate, the knives are ordered.
+    private static int search(PVector<? extends Knife<?>> knives, Coordinate coordinate) {
+        int low = 0, high = knives.size();
+        while (low < high) {
+            final var middle = (low + high) >>> 1;
+            final var position = knives.get(middle).positionOf(coordinate);
+
+            if (position > 0)
+                low = middle + 1;
+            else if (position < 0)
+                high = middle;
+            else
+                return middle;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean isPolygon() {
+        return false;
+    }
+
+    @Override
+    public Session<MultiLineString> open(PVector<Knife.X> x, PVector<Knife.Y> y) {
+        return new Merger(x, y);
+    }
+
+    private static class End {
+
+        final Piece piece;
+        final boolean isFirst;
+
+        End(Piece piece, boolean isFirst) {
+            this.piece = piece;
+            this.isFirst = isFirst;
+        }
+    }
+
+    private static class Link {
+
+        final Piece piece;
+        final boolean reversed;
+
+        Link(Piece piece, boolean reversed) {
+            this.piece = piece;
+            this.reversed = reversed;
+        }
+
+        End head() {
+            return reversed ? piece.last : piece.first;
+        }
+
+        Segment segment() {
+            final var lastIndex = piece.sequence.size() - 1;
+            return reversed ? Segment.backward(lastIndex, 0, piece.sequence) : Segment.forward(0, lastIndex, piece.sequence);
+        }
+
+        End tail() {
+            return reversed ? piece.first : piece.last;
+        }
+    }
+
+    private static class Node {
+
+        final ArrayList<End> ends = new ArrayList<>(2);
+
+        // The other end of a joint, if it is still free.
+        End other(End end) {
+            if (ends.size() == 2) {
+                final var other = ends.get(0) == end ? ends.get(1) : ends.get(0);
+                return !other.piece.used ? other : null;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static class Piece {
+
+        final CoordinateSequence sequence;
+        End first;
+        End last;
+        Node firstNode;
+        Node lastNode;
+        boolean used = false;
+
+        Piece(CoordinateSequence sequence) {
+            this.sequence = sequence;
+            first = new End(this, true);
+            last = new End(this, false);
+        }
+
+        Node nodeOf(End end) {
+            return end.isFirst ? firstNode : lastNode;
+        }
+    }
+
+    private class Merger implements Session<MultiLineString> {
+
+        final PVector<Knife.X> x;
+        final PVector<Knife.Y> y;
+        // The nodes over each knife, by the other ordinate.
+        final ArrayList<TreeMap<Double, Node>> xLanes;
+        final ArrayList<TreeMap<Double, Node>> yLanes;
+        final ArrayList<Piece> pieces = new ArrayList<>();
+
+        Merger(PVector<Knife.X> x, PVector<Knife.Y> y) {
+            this.x = x;
+            this.y = y;
+            xLanes = lanes(x.size());
+            yLanes = lanes(y.size());
+        }
+
+        @Override
+        public void add(DetectionShape shape) {
+            for (var sequence : shape.source) {
+                if (sequence.size() > 1) {
+                    final var piece = new Piece(sequence);
+                    piece.firstNode = register(piece.first, sequence.getCoordinate(0));
+                    piece.lastNode = register(piece.last, sequence.getCoordinate(sequence.size() - 1));
+                    pieces.add(piece);
+                }
+            }
+        }
+
+        LineString chain(Piece piece) {
+            final var links = new ArrayDeque<Link>();
+            piece.used = true;
+            links.add(new Link(piece, false));
+
+            for (var end = next(links.getLast().tail()); end != null; end = next(links.getLast().tail())) {
+                end.piece.used = true;
+                links.addLast(new Link(end.piece, !end.isFirst));
+            }
+
+            for (var end = next(links.getFirst().head()); end != null; end = next(links.getFirst().head())) {
+                end.piece.used = true;
+                links.addFirst(new Link(end.piece, end.isFirst));
+            }
+
+            if (links.size() == 1 && !links.getFirst().reversed)
+                return toLineString(piece.sequence);
+
+            final var builder = new CSBuilder();
+            final var iterator = links.iterator();
+            builder.add(iterator.next().segment());
+            // The joints are the first coordinates of the next pieces.
+            while (iterator.hasNext())
+                builder.add(iterator.next().segment().dropFirst());
+
+            return toLineString(builder.build());
+        }
+
+        @Override
+        public MultiLineString finish() {
+            final var lineStrings = new ArrayList<LineString>();
+            for (var piece : pieces) {
+                if (!piece.used)
+                    lineStrings.add(chain(piece));
+            }
+
+            return factory.createMultiLineString(lineStrings.toArray(LineString[]::new));
+        }
+
+        ArrayList<TreeMap<Double, Node>> lanes(int size) {
+            final Comparator<Double> comparator = (v1, v2) -> Ginsu.compare(v1, offset, v2);
+            final var lanes = new ArrayList<TreeMap<Double, Node>>(size);
+            for (var i = 0; i < size; i++)
+                lanes.add(new TreeMap<>(comparator));
+
+            return lanes;
+        }
+
+        End next(End end) {
+            final var node = end.piece.nodeOf(end);
+            return node != null ? node.other(end) : null;
+        }
+
+        // The end is only registered when it is over a knife, the other ends can't be joined.
+        Node register(End end, Coordinate coordinate) {
+            TreeMap<Double, Node> lane = null;
+            double ordinate = 0D;
+
+            final var xIndex = search(x, coordinate);
+            if (xIndex >= 0) {
+                lane = xLanes.get(xIndex);
+                ordinate = coordinate.getY();
+            } else {
+                final var yIndex = search(y, coordinate);
+                if (yIndex >= 0) {
+                    lane = yLanes.get(yIndex);
+                    ordinate = coordinate.getX();
+                }
+            }
+
+            if (lane != null) {
+                final var node = lane.computeIfAbsent(ordinate, key -> new Node());
+                node.ends.add(end);
+                return node;
+            } else {
+                return null;
+            }
+        }
+
+        LineString toLineString(CoordinateSequence sequence) {
+            return factory.createLineString(compact == null ? sequence : Ginsu.compact(sequence, compact));
+        }
+    }
+}
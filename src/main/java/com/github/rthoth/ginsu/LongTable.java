@@ -0,0 +1,103 @@
+package com.github.rthoth.ginsu;
+
+/**
+ * A map of long keys, an open addressing table (linear probing) so the keys aren't boxed.
+ */
+final class LongTable<V> {
+
+    private long[] keys = new long[64];
+    private Object[] values = new Object[64];
+    private int size = 0;
+
+    /**
+     * The key of the cell (x, y) of a hash grid.
+     */
+    static long cell(long x, long y) {
+        return x * 0x9E3779B97F4A7C15L + y;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        final var mask = keys.length - 1;
+        for (var i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return (V) values[i];
+        }
+
+        return null;
+    }
+
+    private void grow() {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        final var mask = keys.length - 1;
+
+        for (var j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                var i = slot(oldKeys[j], mask);
+                while (values[i] != null)
+                    i = (i + 1) & mask;
+
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * The previous value of the key is returned.
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        final var mask = keys.length - 1;
+        var i = slot(key, mask);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                final var previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++size << 1 > keys.length)
+            grow();
+
+        return null;
+    }
+
+    /*
+     * The entries after the removed one are shifted back, so no probe sequence is broken.
+     */
+    void remove(long key) {
+        final var mask = keys.length - 1;
+        var i = slot(key, mask);
+        while (values[i] != null && keys[i] != key)
+            i = (i + 1) & mask;
+
+        if (values[i] == null)
+            return;
+
+        for (var j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            final var k = slot(keys[j], mask);
+            // The entry at j may move to i only if its slot isn't cyclically in (i, j].
+            if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+                continue;
+
+            keys[i] = keys[j];
+            values[i] = values[j];
+            i = j;
+        }
+
+        values[i] = null;
+        size--;
+    }
+
+    private static int slot(long key, int mask) {
+        final var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -7,12 +7,15 @@ import org.locationtech.jts.geom.Geometry;
 import org.pcollections.PVector;
 import org.pcollections.TreePVector;
 
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class MergeGrid<T extends Geometry> {
 
-    private final Iterable<IndexEntry<Slice>> xSlices;
-    private final Iterable<IndexEntry<Slice>> ySlices;
+    private final PVector<IndexEntry<Slice>> xSlices;
+    private final PVector<IndexEntry<Slice>> ySlices;
 
     private final GeometryMerger<T> merger;
     private final int width;
@@ -31,7 +34,7 @@ public class MergeGrid<T extends Geometry> {
         var ySlices = y.size() > 0 ? slices(y) : TreePVector.singleton(Slice.INNER);
 
         this.xSlices = Ginsu.toVector(Ginsu.zipWithIndex(xSlices));
-        this.ySlices = Ginsu.zipWithIndex(ySlices);
+        this.ySlices = Ginsu.toVector(Ginsu.zipWithIndex(ySlices));
     }
 
     private static <K extends Knife<K>> PVector<Slice> slices(Iterable<K> iterable) {
@@ -49,22 +52,53 @@ public class MergeGrid<T extends Geometry> {
 
     public T apply(Grid<MultiShape> grid) {
         if (grid.width == width && grid.height == height) {
-            // TODO: Parallel?
-
-            var shapes = TreePVector.<DetectionShape>empty();
+            var shapes = new ArrayList<DetectionShape>();
 
             for (var xEntry : xSlices) {
                 for (var yEntry : ySlices) {
-                    shapes = shapes.plusAll(detect(xEntry.value, yEntry.value, grid.get(xEntry.index, yEntry.index)));
+                    shapes.addAll(detect(xEntry.value, yEntry.value, grid.get(xEntry.index, yEntry.index)));
                 }
             }
 
-            return merger.apply(shapes, x, y);
+            return merger.apply(Ginsu.freeze(shapes), x, y);
         } else {
             throw new GinsuException.IllegalArgument("Invalid grid size!");
         }
     }
 
+    /**
+     * Same as {@link #apply(Grid)}, the cells are detected in parallel and merged in the sequential order.
+     */
+    public CompletableFuture<T> apply(Grid<MultiShape> grid, Executor executor) {
+        if (grid.width == width && grid.height == height) {
+            var cells = new ArrayList<CompletableFuture<PVector<DetectionShape>>>(width * height);
+
+            for (var xEntry : xSlices) {
+                for (var yEntry : ySlices) {
+                    cells.add(CompletableFuture.supplyAsync(() -> detect(xEntry.value, yEntry.value, grid.get(xEntry.index, yEntry.index)), executor));
+                }
+            }
+
+            return CompletableFuture.allOf(cells.toArray(CompletableFuture[]::new)).thenApplyAsync(v -> {
+                var shapes = new ArrayList<DetectionShape>();
+                for (var cell : cells)
+                    shapes.addAll(cell.join());
+
+                return merger.apply(Ginsu.freeze(shapes), x, y);
+            }, executor);
+        } else {
+            return CompletableFuture.failedFuture(new GinsuException.IllegalArgument("Invalid grid size!"));
+        }
+    }
+
+    /**
+     * Starts a merge whose cells are added as they arrive, in any order. Every cell is detected and registered when
+     * it is added, the final merge waits for {@link Incremental#finish()} unless the session streams its result.
+     */
+    public Incremental incremental() {
+        return new Incremental();
+    }
+
     private PVector<DetectionShape> detect(Slice x, Slice y, Grid.Entry<Optional<MultiShape>> entry) {
         if (entry.value.isPresent()) {
             final var multishape = entry.value.get();
@@ -79,23 +113,78 @@ public class MergeGrid<T extends Geometry> {
     }
 
     private PVector<DetectionShape> detect(Slice x, Slice y, MultiShape multishape) {
-        var result = TreePVector.<DetectionShape>empty();
+        var result = new ArrayList<DetectionShape>();
         for (final var shape : multishape) {
-            result = result.plus(detect(x, y, shape));
+            result.add(detect(x, y, shape));
         }
 
-        return result;
+        return Ginsu.freeze(result);
     }
 
     private DetectionShape detect(Slice x, Slice y, Shape shape) {
         final var iterator = shape.iterator();
         final var isPolygon = merger.isPolygon();
-        var detections = TreePVector.singleton(Detector.detect(x, y, Ginsu.next(iterator), isPolygon));
+        var detections = new ArrayList<Detection>();
+        detections.add(Detector.detect(x, y, Ginsu.next(iterator), isPolygon));
 
         while (iterator.hasNext()) {
-            detections = detections.plus(Detector.detect(x, y, iterator.next(), isPolygon));
+            detections.add(Detector.detect(x, y, iterator.next(), isPolygon));
+        }
+
+        return new DetectionShape(Ginsu.freeze(detections), shape);
+    }
+
+    /**
+     * The cells may be added concurrently, a missing cell is merged as empty.
+     */
+    public class Incremental {
+
+        private final GeometryMerger.Session<T> session = merger.open(x, y);
+        private final boolean[] added = new boolean[width * height];
+        private boolean finished = false;
+
+        public void add(int x, int y, MultiShape multishape) {
+            if (x < 0 || x >= width || y < 0 || y >= height)
+                throw new GinsuException.IllegalArgument("Invalid cell: (" + x + ", " + y + ")!");
+
+            synchronized (this) {
+                if (finished)
+                    throw new GinsuException.IllegalState("The merge is finished!");
+
+                if (added[y * width + x])
+                    throw new GinsuException.IllegalArgument("Cell (" + x + ", " + y + ") already added!");
+
+                added[y * width + x] = true;
+            }
+
+            // The detection doesn't depend on the other cells, only the registration is serialized.
+            final PVector<DetectionShape> shapes;
+            try {
+                shapes = multishape.nonEmpty() ? detect(xSlices.get(x).value, ySlices.get(y).value, multishape) : TreePVector.empty();
+            } catch (RuntimeException | Error e) {
+                // Nothing was registered, the cell may be added again.
+                synchronized (this) {
+                    added[y * width + x] = false;
+                }
+
+                throw e;
+            }
+
+            // An empty cell is registered too, the session may be waiting for it.
+            synchronized (this) {
+                if (finished)
+                    throw new GinsuException.IllegalState("The merge is finished!");
+
+                session.add(x, y, shapes);
+            }
         }
 
-        return new DetectionShape(detections, shape);
+        public synchronized T finish() {
+            if (finished)
+                throw new GinsuException.IllegalState("The merge is finished!");
+
+            finished = true;
+            return session.finish();
+        }
     }
 }
@@ -2,16 +2,30 @@ package com.github.rthoth.ginsu;
 
 import com.github.rthoth.ginsu.Knife.X;
 import com.github.rthoth.ginsu.Knife.Y;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Lineal;
+import org.locationtech.jts.geom.MultiLineString;
 import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
 import org.pcollections.PVector;
+import org.pcollections.TreePVector;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 public class Merger {
 
     private final PVector<X> x;
     private final PVector<Y> y;
     private final double offset;
+    private final CoordinateSequenceFactory compact;
 
     public Merger(double[] x, double[] y) {
         this(x, y, Ginsu.DEFAULT_OFFSET);
@@ -22,13 +36,134 @@ public class Merger {
     }
 
     protected Merger(PVector<X> x, PVector<Y> y, double offset) {
+        this(x, y, offset, null);
+    }
+
+    private Merger(PVector<X> x, PVector<Y> y, double offset, CoordinateSequenceFactory compact) {
+        // The lanes of a knife are found by a binary search, the knives must be ordered as in a slicer.
+        Slicer.isValid(x);
+        Slicer.isValid(y);
         this.x = x;
         this.y = y;
         this.offset = offset;
+        this.compact = compact;
+    }
+
+    private static <K extends Knife<K>> PVector<K> odd(PVector<K> knives) {
+        var result = new ArrayList<K>(knives.size() / 2);
+        for (var i = 1; i < knives.size(); i += 2)
+            result.add(knives.get(i));
+
+        return Ginsu.freeze(result);
+    }
+
+    private CompletableFuture<MultiPolygon> block(PVector<X> x, PVector<Y> y, Grid<CompletableFuture<MultiPolygon>> grid, int bx, int by, GeometryFactory factory, Executor executor) {
+        final var x0 = bx * 2;
+        final var y0 = by * 2;
+        final var width = Math.min(2, grid.width - x0);
+        final var height = Math.min(2, grid.height - y0);
+
+        if (width == 1 && height == 1)
+            return grid._get(x0, y0);
+
+        final var cells = new ArrayList<CompletableFuture<MultiPolygon>>(width * height);
+        for (var j = 0; j < height; j++) {
+            for (var i = 0; i < width; i++) {
+                cells.add(grid._get(x0 + i, y0 + j));
+            }
+        }
+
+        final var _x = width == 2 ? TreePVector.singleton(x.get(x0)) : TreePVector.<X>empty();
+        final var _y = height == 2 ? TreePVector.singleton(y.get(y0)) : TreePVector.<Y>empty();
+
+        return CompletableFuture.allOf(cells.toArray(CompletableFuture[]::new)).thenApplyAsync(v -> {
+            var block = new Grid.YX<>(width, height, Ginsu.map(cells, cell -> MultiShape.of(cell.join())));
+            // Only the root is compacted, the blocks are views until then.
+            return new MergeGrid<>(_x, _y, new PolygonMerger(factory, offset)).apply(block);
+        }, executor);
+    }
+
+    /**
+     * A merger whose result rings are copied into {@link PackedCoordinateSequence.Double}, instead of being views of
+     * the grid cells.
+     */
+    public Merger compact() {
+        return compact(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+    }
+
+    public Merger compact(CoordinateSequenceFactory factory) {
+        return new Merger(x, y, offset, factory);
+    }
+
+    /**
+     * Merges the grid as a tree of 2x2 blocks, each block is merged with its interior knives only and becomes a cell
+     * of the next level, which keeps the odd knives.
+     */
+    public <T extends Polygonal> MultiPolygon hierarchical(Grid<T> grid, GeometryFactory factory) {
+        if (grid.width == x.size() + 1 && grid.height == y.size() + 1) {
+            return hierarchical(grid, factory, Runnable::run).toCompletableFuture().join();
+        } else {
+            throw new GinsuException.IllegalArgument("Invalid grid size!");
+        }
+    }
+
+    /**
+     * Same as {@link #hierarchical(Grid, GeometryFactory)}, every block is merged as soon as its cells are ready.
+     */
+    public <T extends Polygonal> CompletionStage<MultiPolygon> hierarchical(Grid<T> grid, GeometryFactory factory, Executor executor) {
+        if (grid.width == x.size() + 1 && grid.height == y.size() + 1) {
+            final var root = hierarchical(x, y, grid.map(polygonal -> CompletableFuture.completedFuture(Ginsu.toMulti(polygonal))), factory, executor);
+            return compact == null ? root : root.thenApply(multipolygon -> Ginsu.compact(multipolygon, compact));
+        } else {
+            return CompletableFuture.failedFuture(new GinsuException.IllegalArgument("Invalid grid size!"));
+        }
+    }
+
+    private CompletableFuture<MultiPolygon> hierarchical(PVector<X> x, PVector<Y> y, Grid<CompletableFuture<MultiPolygon>> grid, GeometryFactory factory, Executor executor) {
+        if (grid.width == 1 && grid.height == 1)
+            return grid._get(0, 0);
+
+        final var width = (grid.width + 1) / 2;
+        final var height = (grid.height + 1) / 2;
+        final var blocks = new ArrayList<CompletableFuture<MultiPolygon>>(width * height);
+
+        for (var j = 0; j < height; j++) {
+            for (var i = 0; i < width; i++) {
+                blocks.add(block(x, y, grid, i, j, factory, executor));
+            }
+        }
+
+        return hierarchical(odd(x), odd(y), new Grid.YX<>(width, height, Ginsu.freeze(blocks)), factory, executor);
+    }
+
+    public MergeGrid<MultiPolygon>.Incremental incremental(GeometryFactory factory) {
+        return incremental(factory, null);
+    }
+
+    /**
+     * A polygonal merge whose cells are added as they are computed, see {@link MergeGrid.Incremental}.
+     *
+     * @param consumer if not null it receives every polygon as soon as it is complete, that is once every cell
+     *                 around the cells it touches is added. The result of finish is then empty.
+     */
+    public MergeGrid<MultiPolygon>.Incremental incremental(GeometryFactory factory, Consumer<Polygon> consumer) {
+        return new MergeGrid<>(x, y, new PolygonMerger(factory, offset, compact, consumer)).incremental();
+    }
+
+    /**
+     * Rejoins the lines sliced by {@link Slicer#lineal(Lineal)}, two lines are joined when their ends meet over a
+     * knife and no other line ends there.
+     */
+    public <T extends Lineal> MultiLineString lineal(Grid<T> grid, GeometryFactory factory) {
+        return new MergeGrid<>(x, y, new LinealMerger(factory, offset, compact)).apply(grid.map(MultiShape::of));
     }
 
     @SuppressWarnings("unused")
     public <T extends Polygonal> MultiPolygon polygonal(Grid<T> grid, GeometryFactory factory) {
-        return new MergeGrid<>(x, y, new PolygonMerger(factory, offset)).apply(grid.view(MultiShape::of));
+        return new MergeGrid<>(x, y, new PolygonMerger(factory, offset, compact)).apply(grid.map(MultiShape::of));
+    }
+
+    public <T extends Polygonal> CompletionStage<MultiPolygon> polygonal(Grid<T> grid, GeometryFactory factory, Executor executor) {
+        return new MergeGrid<>(x, y, new PolygonMerger(factory, offset, compact)).apply(grid.map(MultiShape::of), executor);
     }
 }
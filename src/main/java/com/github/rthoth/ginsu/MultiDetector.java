@@ -0,0 +1,211 @@
+package com.github.rthoth.ginsu;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequences;
+import org.pcollections.PVector;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Detects a sequence against ordered slices (as created by {@link Slice#from(Iterable)}) in a single pass.
+ * <p>
+ * Each coordinate is located by a binary search, only the detectors of the slices touched by a segment are checked.
+ */
+public class MultiDetector {
+
+    private final Slice[] slices;
+    private final int ordinate;
+    private final double[] lowers;
+    private final double[] uppers;
+    private final double[] offsets;
+    // The range of the slices this detector covers, a sub detector shares everything else with its parent.
+    private final int start;
+    private final int end;
+    // The scratch of the last finished detection, taken by the next one.
+    private final AtomicReference<Scratch> idle;
+
+    public MultiDetector(PVector<Slice> slices) {
+        this.slices = slices.toArray(new Slice[0]);
+        ordinate = !slices.isEmpty() && slices.get(0).getDimension() == Dimension.Y ? CoordinateSequence.Y : CoordinateSequence.X;
+        lowers = new double[this.slices.length];
+        uppers = new double[this.slices.length];
+        offsets = new double[this.slices.length];
+        start = 0;
+        end = this.slices.length;
+        idle = new AtomicReference<>();
+
+        for (var i = 0; i < this.slices.length; i++) {
+            lowers[i] = this.slices[i].getLowerValue();
+            uppers[i] = this.slices[i].getUpperValue();
+            offsets[i] = this.slices[i].getOffset();
+        }
+    }
+
+    private MultiDetector(MultiDetector parent, int start, int end) {
+        slices = parent.slices;
+        ordinate = parent.ordinate;
+        lowers = parent.lowers;
+        uppers = parent.uppers;
+        offsets = parent.offsets;
+        this.start = start;
+        this.end = end;
+        idle = parent.idle;
+    }
+
+    /*
+     * The slices are located by their ordinate only, a coordinate is created just when a detector has to check it.
+     * A segment strictly inside a single slice is skipped, its detector is updated by the next one that leaves it.
+     */
+    public PVector<Detection> detect(CoordinateSequence sequence) {
+        final var factory = new Event.Factory(sequence);
+        final var scratch = scratch(factory);
+        final var detectors = scratch.detectors;
+        final var checked = scratch.checked;
+
+        var previous = sequence.getCoordinate(0);
+        var pValue = sequence.getOrdinate(0, ordinate);
+        var pLower = lower(pValue);
+        var pUpper = upper(pValue);
+        var pInside = isInside(pLower, pUpper, pValue);
+
+        for (var i = start; i < end; i++)
+            detectors[i].begin(previous);
+
+        final var lastIndex = sequence.size() - 1;
+        for (var index = 1; index < lastIndex; index++) {
+            final var cValue = sequence.getOrdinate(index, ordinate);
+            final var cLower = lower(cValue);
+            final var cUpper = upper(cValue);
+            final var cInside = isInside(cLower, cUpper, cValue);
+
+            if (!pInside || !cInside || pLower != cLower) {
+                final var current = sequence.getCoordinate(index);
+                for (int i = Math.min(pLower, cLower), l = Math.max(pUpper, cUpper); i <= l; i++) {
+                    // The skipped coordinates didn't change the position, only the last one is needed.
+                    if (checked[i] < index - 1)
+                        detectors[i].check(index - 1, previous != null ? previous : sequence.getCoordinate(index - 1));
+
+                    detectors[i].check(index, current);
+                    checked[i] = index;
+                }
+
+                previous = current;
+            } else {
+                previous = null;
+            }
+
+            pLower = cLower;
+            pUpper = cUpper;
+            pInside = cInside;
+        }
+
+        final var lastCoordinate = sequence.getCoordinate(lastIndex);
+        final var isRing = CoordinateSequences.isRing(sequence);
+        final var detections = new Detection[end - start];
+
+        for (var i = start; i < end; i++) {
+            if (checked[i] < lastIndex - 1) {
+                if (previous == null)
+                    previous = sequence.getCoordinate(lastIndex - 1);
+
+                detectors[i].check(lastIndex - 1, previous);
+            }
+
+            detections[i - start] = detectors[i].end(lastIndex, lastCoordinate, isRing);
+        }
+
+        idle.set(scratch);
+        return Ginsu.freeze(detections);
+    }
+
+    // Strictly inside a single slice, not on its borders.
+    private boolean isInside(int lower, int upper, double value) {
+        return lower == upper && Ginsu.compare(value, offsets[lower], lowers[lower]) == 1
+                && Ginsu.compare(value, offsets[lower], uppers[lower]) == -1;
+    }
+
+    public Slice get(int index) {
+        return slices[start + index];
+    }
+
+    int lower(double x, double y) {
+        return lower(ordinate == CoordinateSequence.X ? x : y) - start;
+    }
+
+    // First slice whose position isn't UPPER.
+    private int lower(double value) {
+        int low = start, high = end;
+        while (low < high) {
+            final var middle = (low + high) >>> 1;
+            if (Ginsu.compare(value, offsets[middle], uppers[middle]) == 1)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+
+    private Scratch scratch(Event.Factory factory) {
+        var scratch = idle.getAndSet(null);
+        if (scratch == null)
+            scratch = new Scratch(slices.length);
+
+        for (var i = start; i < end; i++) {
+            if (scratch.detectors[i] != null)
+                scratch.detectors[i].reset(factory);
+            else
+                scratch.detectors[i] = Detector.create(slices[i], factory);
+        }
+
+        Arrays.fill(scratch.checked, start, end, 0);
+        return scratch;
+    }
+
+    public int size() {
+        return end - start;
+    }
+
+    /**
+     * A detector of the slices from start (inclusive) to end (exclusive), it shares the scratch of this one.
+     */
+    public MultiDetector subDetector(int start, int end) {
+        if (start < 0 || end > size() || start > end)
+            throw new GinsuException.IllegalArgument("Invalid range: [" + start + ", " + end + ")!");
+
+        return start == 0 && end == size() ? this : new MultiDetector(this, this.start + start, this.start + end);
+    }
+
+    int upper(double x, double y) {
+        return upper(ordinate == CoordinateSequence.X ? x : y) - start;
+    }
+
+    // Last slice whose position isn't LOWER.
+    private int upper(double value) {
+        int low = start, high = end;
+        while (low < high) {
+            final var middle = (low + high) >>> 1;
+            if (Ginsu.compare(value, offsets[middle], lowers[middle]) == -1)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+
+        return low - 1;
+    }
+
+    /*
+     * A detector per slice, created when a detection first covers it. A concurrent detection just creates its own.
+     */
+    private static final class Scratch {
+
+        final Detector[] detectors;
+        final int[] checked;
+
+        Scratch(int size) {
+            detectors = new Detector[size];
+            checked = new int[size];
+        }
+    }
+}
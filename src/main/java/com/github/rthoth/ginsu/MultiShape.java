@@ -34,6 +34,27 @@ public abstract class MultiShape implements Iterable<Shape>, Mergeable<MultiShap
         return !shapes.isEmpty() ? new NotEmpty(shapes, (Geometry) polygonal) : EMPTY;
     }
 
+    public static MultiShape of(Lineal lineal) {
+        PVector<Shape> shapes = TreePVector.empty();
+
+        if (lineal instanceof MultiLineString) {
+            var multiLineString = (MultiLineString) lineal;
+            for (var i = 0; i < multiLineString.getNumGeometries(); i++) {
+                var shape = Shape.of((LineString) multiLineString.getGeometryN(i));
+                if (shape.nonEmpty())
+                    shapes = shapes.plus(shape);
+            }
+        } else if (lineal instanceof LineString) {
+            var shape = Shape.of((LineString) lineal);
+            if (shape.nonEmpty())
+                shapes = shapes.plus(shape);
+        } else {
+            throw new GinsuException.IllegalArgument(Objects.toString(lineal));
+        }
+
+        return !shapes.isEmpty() ? new NotEmpty(shapes, (Geometry) lineal) : EMPTY;
+    }
+
     public static MultiShape of(Shape shape) {
         return shape.nonEmpty() ? new NotEmpty(TreePVector.singleton(shape), null) : EMPTY;
     }
@@ -52,6 +73,8 @@ public abstract class MultiShape implements Iterable<Shape>, Mergeable<MultiShap
 
     public abstract boolean nonEmpty();
 
+    public abstract MultiLineString toMultiLineString(GeometryFactory factory);
+
     public abstract MultiPolygon toMultiPolygon(GeometryFactory factory);
 
     private static class Empty extends MultiShape {
@@ -76,6 +99,11 @@ public abstract class MultiShape implements Iterable<Shape>, Mergeable<MultiShap
             return other;
         }
 
+        @Override
+        public MultiLineString toMultiLineString(GeometryFactory factory) {
+            return factory.createMultiLineString();
+        }
+
         @Override
         public MultiPolygon toMultiPolygon(GeometryFactory factory) {
             return factory.createMultiPolygon();
@@ -112,6 +140,14 @@ public abstract class MultiShape implements Iterable<Shape>, Mergeable<MultiShap
             return other instanceof NotEmpty ? new NotEmpty(shapes.plusAll(((NotEmpty) other).shapes), null) : this;
         }
 
+        @Override
+        public MultiLineString toMultiLineString(GeometryFactory factory) {
+            if (!(source instanceof MultiLineString))
+                return factory.createMultiLineString(Ginsu.map(shapes, shape -> shape.toLineString(factory)).toArray(LineString[]::new));
+            else
+                return (MultiLineString) source;
+        }
+
         @Override
         public MultiPolygon toMultiPolygon(GeometryFactory factory) {
             if (!(source instanceof MultiPolygon))
@@ -1,69 +1,241 @@
 package com.github.rthoth.ginsu;
 
-import org.locationtech.jts.geom.Envelope;
-import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.MultiPolygon;
-import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.pcollections.PVector;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class Parallel {
 
-    private static <A extends Polygonal, B extends Polygonal> CompletableFuture<MultiPolygon> _polygonal(GridPattern pattern, int limit, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function, Executor executor) {
-        var _a = Ginsu.toMulti(a);
-        var _b = Ginsu.toMulti(b);
+    private static CompletableFuture<MultiPolygon> _apply(GridPattern pattern, int limit, Operation operation, PVector<MultiPolygon> operands, int parent, Executor executor) {
+        final var total = points(operands);
+        if (isLeaf(limit, operation, total, parent))
+            return CompletableFuture.supplyAsync(() -> operation.apply(operands), executor);
 
-        if (_a.getNumPoints() + _b.getNumPoints() <= limit)
-            return CompletableFuture.supplyAsync(() -> function.apply(_a, _b), executor);
-        else {
-            var slicer = pattern.slicer(executor, _a, _b);
-            var aGrid = slicer.thenApplyAsync(s -> s.polygonal(_a), executor);
-            var bGrid = slicer.thenApplyAsync(s -> s.polygonal(_b), executor);
+        final var factory = operands.get(0).getFactory();
 
-            var factory = _a.getFactory();
+        return pattern.slicer(executor, operands.toArray(Geometry[]::new)).thenComposeAsync(slicer -> {
+            final var extruded = slicer.extrude(operation.extrusion);
+            final var grids = Ginsu.map(operands, operand -> extruded.polygonal(operand, executor).toCompletableFuture());
 
-            return aGrid.thenCombine(bGrid, PolygonCtx::new)
-                    .thenCombine(slicer, PolygonCtx::slicer)
-                    .thenComposeAsync(ctx -> {
-                        var _1 = ctx._1;
-                        var _2 = ctx._2;
+            return CompletableFuture.allOf(grids.toArray(CompletableFuture[]::new)).thenComposeAsync(v -> {
+                final var first = grids.get(0).join();
+                final var cells = new ArrayList<CompletableFuture<MultiPolygon>>(first.width * first.height);
 
-                        var grid = _1.combine(_2, (m1, m2) -> _polygonal(pattern, limit, m1, m2, function, executor))
-                                .copy();
-                        return CompletableFuture
-                                .allOf(Ginsu.map(grid.iterable(), entry -> entry.value).toArray(CompletableFuture[]::new))
-                                .thenComposeAsync(v -> CompletableFuture.supplyAsync(() -> ctx.slicer.merger().polygonal(grid.view(CompletableFuture::join), factory)));
-                    });
+                for (var entry : first.iterable()) {
+                    final int x = entry.x, y = entry.y;
+                    final var cell = _apply(pattern, limit, operation, Ginsu.map(grids, grid -> grid.join()._get(x, y)), total, executor);
+                    cells.add(cell.thenApply(result -> clip(operation, result, slicer, x, y)));
+                }
+
+                final var grid = new Grid.YX<>(first.width, first.height, Ginsu.freeze(cells));
+                return CompletableFuture.allOf(cells.toArray(CompletableFuture[]::new))
+                        .thenComposeAsync(w -> slicer.merger().hierarchical(grid.map(CompletableFuture::join), factory, executor), executor);
+            }, executor);
+        }, executor);
+    }
+
+    private static MultiPolygon _blocking(GridPattern pattern, int limit, Operation operation, PVector<MultiPolygon> operands, int parent) {
+        final var total = points(operands);
+        if (isLeaf(limit, operation, total, parent))
+            return operation.apply(operands);
+
+        final var slicer = pattern.slicer(operands.toArray(Geometry[]::new));
+        final var extruded = slicer.extrude(operation.extrusion);
+        final var grids = Tasks.all(Ginsu.map(operands, operand -> (Supplier<Grid<MultiPolygon>>) () -> extruded.polygonal(operand)));
+        final var first = grids.get(0);
+        final var cells = new ArrayList<Supplier<MultiPolygon>>(first.width * first.height);
+
+        for (var entry : first.iterable()) {
+            final int x = entry.x, y = entry.y;
+            final var cell = Ginsu.map(grids, grid -> grid._get(x, y));
+            cells.add(() -> clip(operation, _blocking(pattern, limit, operation, cell, total), slicer, x, y));
         }
+
+        return slicer.merger().hierarchical(new Grid.YX<>(first.width, first.height, Tasks.all(cells)), operands.get(0).getFactory());
+    }
+
+    /**
+     * Slices the operands, applies the operation to every cell with more than limit points (recursively) and merges
+     * the results. The cells are extruded by {@link Operation#getExtrusion()} and the results are clipped back to their
+     * cells before the merge.
+     */
+    public static CompletionStage<MultiPolygon> apply(GridPattern pattern, int limit, Operation operation, List<? extends Polygonal> operands, Executor executor) {
+        if (!operands.isEmpty())
+            return _apply(pattern, limit, operation, Ginsu.map(operands, Ginsu::toMulti), Integer.MAX_VALUE, executor);
+        else
+            return CompletableFuture.failedFuture(new GinsuException.IllegalArgument("No operands!"));
+    }
+
+    private static MultiPolygon clip(Operation operation, MultiPolygon result, Slicer slicer, int x, int y) {
+        return operation.extrusion > 0D ? clip(result, slicer, x, y) : result;
+    }
+
+    // The part of the result inside its cell, the outer cells aren't bounded.
+    private static MultiPolygon clip(MultiPolygon result, Slicer slicer, int x, int y) {
+        if (result.isEmpty())
+            return result;
+
+        final var envelope = result.getEnvelopeInternal();
+        final var xs = slicer.getX();
+        final var ys = slicer.getY();
+        final var cell = new Envelope(
+                x > 0 ? xs.get(x - 1).value : envelope.getMinX(), x < xs.size() ? xs.get(x).value : envelope.getMaxX(),
+                y > 0 ? ys.get(y - 1).value : envelope.getMinY(), y < ys.size() ? ys.get(y).value : envelope.getMaxY());
+
+        if (cell.contains(envelope))
+            return result;
+
+        final var polygons = PolygonExtracter.getPolygons(result.intersection(result.getFactory().toGeometry(cell)));
+        return result.getFactory().createMultiPolygon(GeometryFactory.toPolygonArray(polygons));
+    }
+
+    /**
+     * The same divide and conquer written with plain blocking joins. On Java 21+ the slices and the cells of every level
+     * run on virtual threads, so a blocking function costs no platform thread. Before Java 21 they are tasks of the common pool.
+     */
+    public static MultiPolygon blocking(GridPattern pattern, int limit, Operation operation, List<? extends Polygonal> operands) {
+        if (!operands.isEmpty())
+            return _blocking(pattern, limit, operation, Ginsu.map(operands, Ginsu::toMulti), Integer.MAX_VALUE);
+        else
+            throw new GinsuException.IllegalArgument("No operands!");
+    }
+
+    public static <A extends Polygonal, B extends Polygonal> MultiPolygon blocking(GridPattern pattern, int limit, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function) {
+        return blocking(pattern, limit, Operation.binary(function), Arrays.asList(a, b));
+    }
+
+    public static <A extends Polygonal, B extends Polygonal> MultiPolygon forkJoin(GridPattern pattern, int limit, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function) {
+        return forkJoin(pattern, limit, a, b, function, ForkJoinPool.commonPool());
+    }
+
+    public static <A extends Polygonal, B extends Polygonal> MultiPolygon forkJoin(GridPattern pattern, int limit, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function, ForkJoinPool pool) {
+        return forkJoin(pattern, limit, Operation.binary(function), Arrays.asList(a, b), pool);
+    }
+
+    /**
+     * The divide and conquer as a {@link RecursiveTask} per cell, the cells are forked and joined inside the pool so
+     * the work is stolen instead of scheduled through a graph of futures.
+     */
+    public static MultiPolygon forkJoin(GridPattern pattern, int limit, Operation operation, List<? extends Polygonal> operands, ForkJoinPool pool) {
+        if (!operands.isEmpty())
+            return pool.invoke(new PolygonTask(pattern, limit, operation, Ginsu.map(operands, Ginsu::toMulti), Integer.MAX_VALUE));
+        else
+            throw new GinsuException.IllegalArgument("No operands!");
     }
 
     public static GridPattern grid(int x, int y) {
-        return new GridPattern(x, y);
+        return new Regular(x, y);
+    }
+
+    // An extruded cell may be as large as its parent, then it would never get under the limit.
+    private static boolean isLeaf(int limit, Operation operation, int points, int parent) {
+        return points <= limit || (operation.extrusion > 0D && points >= parent);
+    }
+
+    private static int points(PVector<MultiPolygon> operands) {
+        var points = 0;
+        for (var operand : operands)
+            points += operand.getNumPoints();
+
+        return points;
+    }
+
+    /**
+     * A pattern with x and y knives placed at the quantiles of the vertices instead of evenly spaced.
+     */
+    public static GridPattern quantile(int x, int y) {
+        return new Quantile(x, y);
     }
 
     public static <A extends Polygonal, B extends Polygonal> CompletionStage<MultiPolygon> polygonal(GridPattern pattern, int limit, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function, Executor executor) {
-        return _polygonal(pattern, limit, a, b, function, executor);
+        return apply(pattern, limit, Operation.binary(function), Arrays.asList(a, b), executor);
     }
 
     public static <A extends Polygonal, B extends Polygonal> CompletionStage<MultiPolygon> polygonal(GridPattern pattern, int limit, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function) {
-        return _polygonal(pattern, limit, a, b, function, ForkJoinPool.commonPool());
+        return apply(pattern, limit, Operation.binary(function), Arrays.asList(a, b), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #polygonal(GridPattern, int, Polygonal, Polygonal, BiFunction, Executor)} but at most parallelism
+     * tasks are sent to the executor at once and the pending ones run last in, first out. So the cells are processed
+     * depth first, the grids of a cell are merged and released before its siblings are sliced and the peak memory
+     * follows the depth instead of the whole fan out.
+     */
+    public static <A extends Polygonal, B extends Polygonal> CompletionStage<MultiPolygon> polygonal(GridPattern pattern, int limit, int parallelism, A a, B b, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function, Executor executor) {
+        if (parallelism > 0)
+            return apply(pattern, limit, Operation.binary(function), Arrays.asList(a, b), new Lifo(executor, parallelism));
+        else
+            throw new GinsuException.IllegalArgument("Parallelism: " + parallelism);
     }
 
-    public static final class GridPattern {
+    private static final class Gaps {
 
-        private final int x;
-        private final int y;
+        private final double[] knives;
+        private final double[] lower;
+        private final double[] upper;
+
+        private Gaps(double[] knives, double min, double max) {
+            this.knives = knives;
+            lower = new double[knives.length];
+            upper = new double[knives.length];
+            Arrays.fill(lower, min);
+            Arrays.fill(upper, max);
+        }
+
+        // The closest value not above the first knife not below it and the closest value above the last knife below it.
+        private void add(double value) {
+            var index = Arrays.binarySearch(knives, value);
+            if (index >= 0) {
+                while (index > 0 && knives[index - 1] == value)
+                    index--;
+            } else {
+                index = -index - 1;
+            }
+
+            if (index < knives.length && value > lower[index])
+                lower[index] = value;
+
+            if (index > 0 && value < upper[index - 1] && value > knives[index - 1])
+                upper[index - 1] = value;
+        }
+
+        private Gaps close() {
+            for (var i = 1; i < knives.length; i++)
+                lower[i] = Math.max(lower[i], lower[i - 1]);
+
+            for (var i = knives.length - 2; i >= 0; i--)
+                upper[i] = Math.min(upper[i], upper[i + 1]);
+
+            return this;
+        }
+    }
+
+    public abstract static class GridPattern {
+
+        protected final int x;
+        protected final int y;
 
         private GridPattern(int x, int y) {
             this.x = x;
             this.y = y;
         }
 
-        private double[] createArray(double min, double max, int n) {
+        static double[] createArray(double min, double max, int n) {
             if (n > 0) {
                 var array = new double[n];
                 var size = (max - min) / (array.length + 1);
@@ -78,35 +250,323 @@ public class Parallel {
             }
         }
 
+        abstract Slicer create(Envelope envelope, Geometry... geometries);
+
         private CompletableFuture<Slicer> slicer(Executor executor, Geometry... geometries) {
-            return CompletableFuture.supplyAsync(() -> {
-                var env = new Envelope(geometries[0].getEnvelopeInternal());
-                for (var i = 1; i < geometries.length; i++) {
-                    env.expandToInclude(geometries[i].getEnvelopeInternal());
+            return CompletableFuture.supplyAsync(() -> slicer(geometries), executor);
+        }
+
+        private Slicer slicer(Geometry... geometries) {
+            var env = new Envelope(geometries[0].getEnvelopeInternal());
+            for (var i = 1; i < geometries.length; i++) {
+                env.expandToInclude(geometries[i].getEnvelopeInternal());
+            }
+
+            return create(env, geometries);
+        }
+    }
+
+    /*
+     * An executor which sends at most parallelism workers to the underlying one, each worker runs the pending tasks,
+     * the most recent first, until there is none.
+     */
+    private static final class Lifo implements Executor {
+
+        private final Executor executor;
+        private final int parallelism;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private int workers = 0;
+
+        private Lifo(Executor executor, int parallelism) {
+            this.executor = executor;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                tasks.push(task);
+                if (workers == parallelism)
+                    return;
+
+                workers++;
+            }
+
+            try {
+                executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    workers--;
+                    tasks.removeFirstOccurrence(task);
                 }
 
-                var x = createArray(env.getMinX(), env.getMaxX(), this.x);
-                var y = createArray(env.getMinY(), env.getMaxY(), this.y);
+                throw e;
+            }
+        }
 
-                return new Slicer(x, y);
-            }, executor);
+        private void work() {
+            while (true) {
+                final Runnable task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        workers--;
+                        return;
+                    }
+                }
+
+                try {
+                    task.run();
+                } catch (RuntimeException | Error e) {
+                    // The worker is replaced, the pending tasks can't be lost.
+                    try {
+                        executor.execute(this::work);
+                    } catch (RejectedExecutionException rejected) {
+                        synchronized (this) {
+                            workers--;
+                        }
+
+                        e.addSuppressed(rejected);
+                    }
+
+                    throw e;
+                }
+            }
         }
     }
 
-    private static final class PolygonCtx {
+    /**
+     * What is computed on every cell, with the extrusion the cells need around them. For instance a buffer of d needs
+     * an extrusion of at least |d| so every cell sees all the geometry which affects it.
+     */
+    public abstract static class Operation {
 
-        private final Grid<MultiPolygon> _1;
-        private final Grid<MultiPolygon> _2;
-        private Slicer slicer;
+        private final double extrusion;
 
-        private PolygonCtx(Grid<MultiPolygon> _1, Grid<MultiPolygon> _2) {
-            this._1 = _1;
-            this._2 = _2;
+        protected Operation(double extrusion) {
+            if (extrusion >= 0D)
+                this.extrusion = extrusion;
+            else
+                throw new GinsuException.IllegalArgument("Extrusion: " + extrusion);
         }
 
-        public PolygonCtx slicer(Slicer slicer) {
-            this.slicer = slicer;
-            return this;
+        public static Operation binary(BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function) {
+            return binary(0D, function);
+        }
+
+        public static Operation binary(double extrusion, BiFunction<MultiPolygon, MultiPolygon, MultiPolygon> function) {
+            return new Operation(extrusion) {
+                @Override
+                protected MultiPolygon apply(PVector<MultiPolygon> operands) {
+                    if (operands.size() == 2)
+                        return function.apply(operands.get(0), operands.get(1));
+                    else
+                        throw new GinsuException.IllegalArgument("Binary operation with " + operands.size() + " operands!");
+                }
+            };
+        }
+
+        public static Operation nary(Function<PVector<MultiPolygon>, MultiPolygon> function) {
+            return nary(0D, function);
+        }
+
+        public static Operation nary(double extrusion, Function<PVector<MultiPolygon>, MultiPolygon> function) {
+            return new Operation(extrusion) {
+                @Override
+                protected MultiPolygon apply(PVector<MultiPolygon> operands) {
+                    return function.apply(operands);
+                }
+            };
+        }
+
+        public static Operation unary(Function<MultiPolygon, MultiPolygon> function) {
+            return unary(0D, function);
+        }
+
+        public static Operation unary(double extrusion, Function<MultiPolygon, MultiPolygon> function) {
+            return new Operation(extrusion) {
+                @Override
+                protected MultiPolygon apply(PVector<MultiPolygon> operands) {
+                    if (operands.size() == 1)
+                        return function.apply(operands.get(0));
+                    else
+                        throw new GinsuException.IllegalArgument("Unary operation with " + operands.size() + " operands!");
+                }
+            };
+        }
+
+        protected abstract MultiPolygon apply(PVector<MultiPolygon> operands);
+
+        public double getExtrusion() {
+            return extrusion;
+        }
+    }
+
+    private static final class PolygonTask extends RecursiveTask<MultiPolygon> {
+
+        private final GridPattern pattern;
+        private final int limit;
+        private final Operation operation;
+        private final PVector<MultiPolygon> operands;
+        private final int parent;
+
+        private PolygonTask(GridPattern pattern, int limit, Operation operation, PVector<MultiPolygon> operands, int parent) {
+            this.pattern = pattern;
+            this.limit = limit;
+            this.operation = operation;
+            this.operands = operands;
+            this.parent = parent;
+        }
+
+        @Override
+        protected MultiPolygon compute() {
+            final var total = points(operands);
+            if (isLeaf(limit, operation, total, parent))
+                return operation.apply(operands);
+
+            final var slicer = pattern.slicer(operands.toArray(Geometry[]::new));
+            final var extruded = slicer.extrude(operation.extrusion);
+            final var grids = Ginsu.map(operands, operand -> ForkJoinTask.adapt(() -> extruded.polygonal(operand)));
+            ForkJoinTask.invokeAll(grids);
+
+            final var first = grids.get(0).join();
+            final var tasks = new ArrayList<PolygonTask>(first.width * first.height);
+            for (var entry : first.iterable()) {
+                final int x = entry.x, y = entry.y;
+                tasks.add(new PolygonTask(pattern, limit, operation, Ginsu.map(grids, grid -> grid.join()._get(x, y)), total));
+            }
+
+            ForkJoinTask.invokeAll(tasks);
+            final var cells = new ArrayList<MultiPolygon>(tasks.size());
+            var i = 0;
+            for (var entry : first.iterable())
+                cells.add(clip(operation, tasks.get(i++).join(), slicer, entry.x, entry.y));
+
+            return slicer.merger().hierarchical(new Grid.YX<>(first.width, first.height, Ginsu.freeze(cells)), operands.get(0).getFactory());
+        }
+    }
+
+    /**
+     * Knives at the vertex count quantiles of a sample of the coordinates, as the pattern is applied again to every
+     * cell with more than limit points the recursion splits the dense regions adaptively.
+     * <p>
+     * Each knife is moved into a gap between the coordinates, so it never passes through a vertex.
+     */
+    private static final class Quantile extends GridPattern {
+
+        // Where the knives are placed in the gaps, neither the middle nor equal (or complementary) for x and y, otherwise
+        // an edge crossing both gaps passes through the knife crossing.
+        private static final double X_GAP = 0.381966D;
+        private static final double Y_GAP = 0.292893D;
+        // Smallest gap relative to the envelope, a knife too close to a vertex is almost through it.
+        private static final double MIN_GAP = 1e-6D;
+        private static final int SAMPLE = 1 << 14;
+
+        private Quantile(int x, int y) {
+            super(x, y);
+        }
+
+        // Quantiles moved into the closest gap of the sample.
+        private static double[] candidates(double[] sample, int size, double min, double max, int n, double fraction) {
+            if (n > 0 && size > 1) {
+                Arrays.sort(sample, 0, size);
+                var array = new double[n];
+                var length = 0;
+                var gap = minGap(min, max);
+
+                for (var i = 1; i <= n; i++) {
+                    var position = Math.max(1, (int) ((long) i * size / (n + 1)));
+                    for (var d = 0; position - d > 0 || position + d < size; d++) {
+                        var j = searchGap(sample, size, position - d, gap);
+                        if (j < 0)
+                            j = searchGap(sample, size, position + d, gap);
+
+                        if (j >= 0) {
+                            var value = sample[j - 1] + (sample[j] - sample[j - 1]) * fraction;
+                            if (length == 0 || value > array[length - 1])
+                                array[length++] = value;
+                            break;
+                        }
+                    }
+                }
+
+                return Arrays.copyOf(array, length);
+            } else {
+                return new double[0];
+            }
+        }
+
+        private static double[] createArray(Gaps gaps, double min, double max, int n, double fraction) {
+            final var array = new double[gaps.knives.length];
+            var length = 0;
+            var last = min;
+            var gap = minGap(min, max);
+
+            for (var i = 0; i < array.length; i++) {
+                if (gaps.upper[i] - gaps.lower[i] > gap) {
+                    var value = gaps.lower[i] + (gaps.upper[i] - gaps.lower[i]) * fraction;
+                    if (value - last > Ginsu.DEFAULT_OFFSET && max - value > Ginsu.DEFAULT_OFFSET) {
+                        array[length++] = value;
+                        last = value;
+                    }
+                }
+            }
+
+            return length > 0 ? Arrays.copyOf(array, length) : GridPattern.createArray(min, max, n);
+        }
+
+        private static double minGap(double min, double max) {
+            return Math.max(4 * Ginsu.DEFAULT_OFFSET, (max - min) * MIN_GAP);
+        }
+
+        private static int searchGap(double[] sample, int size, int index, double gap) {
+            return index > 0 && index < size && sample[index] - sample[index - 1] > gap ? index : -1;
+        }
+
+        @Override
+        Slicer create(Envelope envelope, Geometry... geometries) {
+            var points = 0;
+            for (var geometry : geometries)
+                points += geometry.getNumPoints();
+
+            final var step = Math.max(1, points / SAMPLE);
+            final var xs = new double[points / step + 1];
+            final var ys = new double[xs.length];
+            final var size = new int[]{0, 0};
+
+            for (var geometry : geometries) {
+                geometry.apply((CoordinateFilter) coordinate -> {
+                    if (size[1]++ % step == 0 && size[0] < xs.length) {
+                        xs[size[0]] = coordinate.getX();
+                        ys[size[0]++] = coordinate.getY();
+                    }
+                });
+            }
+
+            final var xGaps = new Gaps(candidates(xs, size[0], envelope.getMinX(), envelope.getMaxX(), x, X_GAP), envelope.getMinX(), envelope.getMaxX());
+            final var yGaps = new Gaps(candidates(ys, size[0], envelope.getMinY(), envelope.getMaxY(), y, Y_GAP), envelope.getMinY(), envelope.getMaxY());
+
+            for (var geometry : geometries) {
+                geometry.apply((CoordinateFilter) coordinate -> {
+                    xGaps.add(coordinate.getX());
+                    yGaps.add(coordinate.getY());
+                });
+            }
+
+            return new Slicer(createArray(xGaps.close(), envelope.getMinX(), envelope.getMaxX(), x, X_GAP),
+                    createArray(yGaps.close(), envelope.getMinY(), envelope.getMaxY(), y, Y_GAP));
+        }
+    }
+
+    private static final class Regular extends GridPattern {
+
+        private Regular(int x, int y) {
+            super(x, y);
+        }
+
+        @Override
+        Slicer create(Envelope envelope, Geometry... geometries) {
+            return new Slicer(createArray(envelope.getMinX(), envelope.getMaxX(), x), createArray(envelope.getMinY(), envelope.getMaxY(), y));
         }
     }
 }
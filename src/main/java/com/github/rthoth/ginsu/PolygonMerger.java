@@ -1,9 +1,13 @@
 package com.github.rthoth.ginsu;
 
+import org.locationtech.jts.algorithm.RayCrossingCounter;
 import org.locationtech.jts.geom.*;
 import org.pcollections.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -16,10 +20,29 @@ public class PolygonMerger extends GeometryMerger<MultiPolygon> {
 
     private final GeometryFactory factory;
     private final double offset;
+    private final CoordinateSequenceFactory compact;
+    private final Consumer<Polygon> consumer;
 
     public PolygonMerger(GeometryFactory factory, double offset) {
+        this(factory, offset, null);
+    }
+
+    /**
+     * @param compact if not null the merged rings are copied into sequences of this factory.
+     */
+    public PolygonMerger(GeometryFactory factory, double offset, CoordinateSequenceFactory compact) {
+        this(factory, offset, compact, null);
+    }
+
+    /**
+     * @param consumer if not null the complete polygons are sent to it as soon as they are known, instead of being
+     *                 part of the result.
+     */
+    public PolygonMerger(GeometryFactory factory, double offset, CoordinateSequenceFactory compact, Consumer<Polygon> consumer) {
         this.factory = factory;
         this.offset = offset;
+        this.compact = compact;
+        this.consumer = consumer;
     }
 
     private static PSet<Maze.N> addCandidates(PSet<Maze.N> set, int direction, Maze.N lower, Maze.N higher, Maze.N previous) {
@@ -54,13 +77,13 @@ public class PolygonMerger extends GeometryMerger<MultiPolygon> {
     }
 
     @Override
-    public MultiPolygon apply(PCollection<DetectionShape> shapes, PVector<Knife.X> x, PVector<Knife.Y> y) {
-        return new Merger(shapes, x, y).result;
+    public boolean isPolygon() {
+        return true;
     }
 
     @Override
-    public boolean isPolygon() {
-        return true;
+    public Session<MultiPolygon> open(PVector<Knife.X> x, PVector<Knife.Y> y) {
+        return consumer == null ? new Merger(x, y) : new Stream(x, y);
     }
 
     private enum Info {
@@ -97,27 +120,56 @@ public class PolygonMerger extends GeometryMerger<MultiPolygon> {
         }
     }
 
-    private class Merger {
-
-        MultiPolygon result;
+    private class Merger implements Session<MultiPolygon> {
 
         Maze maze;
         HashMap<DetectionShape, ProtoPolygon> shapeToProtoPolygon = new HashMap<>();
+        // Holes which touch no knife, the maze never reaches them. They go with the prototype of their shape, or with the
+        // one around them when their shape is in no ring (its shell lies on the knives).
+        HashMap<DetectionShape, ArrayList<Ring>> shapeToHoles = new HashMap<>();
 
-        PVector<ProtoPolygon> prototypes = TreePVector.empty();
+        ArrayList<ProtoPolygon> prototypes = new ArrayList<>();
+        ArrayList<Polygon> polygons = new ArrayList<>();
 
-        Merger(PCollection<DetectionShape> shapes, PVector<Knife.X> x, PVector<Knife.Y> y) {
+        Merger(PVector<Knife.X> x, PVector<Knife.Y> y) {
             maze = new Maze(x, y, offset);
+        }
+
+        /*
+         * A shape without events doesn't touch any knife, it is already a complete polygon.
+         */
+        @Override
+        public void add(DetectionShape shape) {
+            if (shape.nonEmpty()) {
+                maze.add(shape);
+                for (var hole : shape.detections.subList(1, shape.detections.size())) {
+                    if (!hole.nonEmpty())
+                        shapeToHoles.computeIfAbsent(shape, key -> new ArrayList<>()).add(new Ring(hole.sequence, HashTreePSet.singleton(shape)));
+                }
+            } else if (Ginsu.first(shape.detections).startsInside)
+                polygons.add(shape.source.toPolygon(factory));
+        }
 
-            var polygons = TreePVector.<Polygon>empty();
+        void attachHoles(ProtoPolygon prototype) {
+            final var iterator = shapeToHoles.values().iterator();
+            while (iterator.hasNext()) {
+                final var holes = iterator.next();
+                holes.removeIf(hole -> {
+                    if (prototype.contains(hole)) {
+                        prototype.addHole(hole);
+                        return true;
+                    } else {
+                        return false;
+                    }
+                });
 
-            for (var shape : shapes) {
-                if (shape.nonEmpty())
-                    maze.add(shape);
-                else if (Ginsu.first(shape.detections).startsInside)
-                    polygons = polygons.plus(shape.source.toPolygon(factory));
+                if (holes.isEmpty())
+                    iterator.remove();
             }
+        }
 
+        @Override
+        public MultiPolygon finish() {
             maze.init(Info.O, (current, e, hasMore) -> {
                 if (e != null) {
                     if (hasMore) {
@@ -151,10 +203,18 @@ public class PolygonMerger extends GeometryMerger<MultiPolygon> {
                 }
             }
 
-            var array = Ginsu.map(prototypes, ProtoPolygon::toPolygon)
-                    .plusAll(polygons).toArray(Polygon[]::new);
+            for (var prototype : prototypes)
+                attachHoles(prototype);
+
+            var array = new Polygon[prototypes.size() + polygons.size()];
+            var i = 0;
+            for (var prototype : prototypes)
+                array[i++] = prototype.toPolygon();
 
-            result = factory.createMultiPolygon(array);
+            for (var polygon : polygons)
+                array[i++] = polygon;
+
+            return compact == null ? factory.createMultiPolygon(array) : Ginsu.compact(factory.createMultiPolygon(array), compact);
         }
 
         Maze.SingleE choiceOneFlow(PSet<Maze.SingleE> set) {
@@ -200,12 +260,18 @@ public class PolygonMerger extends GeometryMerger<MultiPolygon> {
                 prototype.addHole(ring);
             } else {
                 prototype = new ProtoPolygon(ring);
-                prototypes = prototypes.plus(prototype);
+                prototypes.add(prototype);
             }
 
             for (var shape : ring.shapes) {
-                if (!shapeToProtoPolygon.containsKey(shape))
+                if (!shapeToProtoPolygon.containsKey(shape)) {
                     shapeToProtoPolygon.put(shape, prototype);
+                    final var holes = shapeToHoles.remove(shape);
+                    if (holes != null) {
+                        for (var hole : holes)
+                            prototype.addHole(hole);
+                    }
+                }
             }
         }
 
@@ -316,19 +382,298 @@ public class PolygonMerger extends GeometryMerger<MultiPolygon> {
         }
     }
 
+    /*
+     * Streams the polygons while the cells are added. The shapes which share a node (events within the offset) form a
+     * component, a component is merged on its own as soon as every cell around its cells is added. A shape added
+     * without its cell waits for finish.
+     */
+    private class Stream implements Session<MultiPolygon> {
+
+        private static final int NO_CELL = -1;
+
+        final PVector<Knife.X> x;
+        final PVector<Knife.Y> y;
+        final int width;
+        final int height;
+        final boolean[] added;
+        final double cell;
+        // The nodes of the components in a hash grid, each bucket chains its nodes.
+        final LongTable<Node> nodes = new LongTable<>();
+        // The components waiting for each cell.
+        final HashMap<Integer, ArrayList<Component>> waiting = new HashMap<>();
+        // The components not merged yet, in the order they appeared.
+        final LinkedHashSet<Component> components = new LinkedHashSet<>();
+
+        Stream(PVector<Knife.X> x, PVector<Knife.Y> y) {
+            this.x = x;
+            this.y = y;
+            width = x.size() + 1;
+            height = y.size() + 1;
+            added = new boolean[width * height];
+            cell = offset > 0D ? 4D * offset : 1D;
+        }
+
+        @Override
+        public void add(DetectionShape shape) {
+            final var component = register(shape, NO_CELL, NO_CELL);
+            if (component != null)
+                component.root().missing.add(NO_CELL);
+        }
+
+        @Override
+        public void add(int x, int y, PVector<DetectionShape> shapes) {
+            final var index = y * width + x;
+            final var touched = new ArrayList<Component>();
+            for (var shape : shapes) {
+                final var component = register(shape, x, y);
+                if (component != null)
+                    touched.add(component);
+            }
+
+            added[index] = true;
+            final var components = waiting.remove(index);
+            if (components != null) {
+                for (var component : components) {
+                    component.root().missing.remove(index);
+                    touched.add(component);
+                }
+            }
+
+            for (var component : touched) {
+                final var root = component.root();
+                if (root.missing.isEmpty() && this.components.contains(root))
+                    merge(root);
+            }
+        }
+
+        @Override
+        public MultiPolygon finish() {
+            for (var component : new ArrayList<>(components))
+                merge(component);
+
+            return factory.createMultiPolygon();
+        }
+
+        private long key(double value) {
+            return (long) Math.floor(value / cell);
+        }
+
+        private <K extends Knife<K>> PVector<K> knives(PVector<K> knives, int min, int max) {
+            // The cell i lies between the knives i - 1 and i.
+            final var start = Math.max(min - 1, 0);
+            final var end = Math.min(max, knives.size() - 1) + 1;
+            return start < end ? knives.subList(start, end) : knives.subList(0, 0);
+        }
+
+        Component link(double cx, double cy, Component component) {
+            final var margin = 1.5D * offset;
+
+            for (long ix = key(cx - margin), lx = key(cx + margin); ix <= lx; ix++) {
+                for (long iy = key(cy - margin), ly = key(cy + margin); iy <= ly; iy++) {
+                    for (var node = nodes.get(LongTable.cell(ix, iy)); node != null; node = node.chained) {
+                        if (Ginsu.compare(cx, offset, node.x) == 0 && Ginsu.compare(cy, offset, node.y) == 0)
+                            return union(node.component.root(), component);
+                    }
+                }
+            }
+
+            final var node = new Node(cx, cy, LongTable.cell(key(cx), key(cy)), component);
+            node.chained = nodes.put(node.key, node);
+            component.nodes.add(node);
+            return component;
+        }
+
+        /*
+         * The merged component leaves the stream, its nodes are unlinked from the hash grid.
+         */
+        void merge(Component component) {
+            components.remove(component);
+            final var merger = new Merger(knives(x, component.minX, component.maxX), knives(y, component.minY, component.maxY));
+            for (var shape : component.shapes)
+                merger.add(shape);
+
+            final var result = merger.finish();
+            for (var node : component.nodes)
+                unlink(node);
+
+            component.shapes.clear();
+            component.nodes.clear();
+            for (var i = 0; i < result.getNumGeometries(); i++)
+                consumer.accept((Polygon) result.getGeometryN(i));
+        }
+
+        /*
+         * A shape without events doesn't touch any knife, it is already a complete polygon.
+         */
+        Component register(DetectionShape shape, int x, int y) {
+            if (!shape.nonEmpty()) {
+                if (Ginsu.first(shape.detections).startsInside) {
+                    final var polygon = shape.source.toPolygon(factory);
+                    consumer.accept(compact == null ? polygon : Ginsu.compact(polygon, compact));
+                }
+
+                return null;
+            }
+
+            var component = new Component(shape, x, y);
+            components.add(component);
+
+            if (x != NO_CELL) {
+                for (int i = Math.max(x - 1, 0), li = Math.min(x + 1, width - 1); i <= li; i++) {
+                    for (int j = Math.max(y - 1, 0), lj = Math.min(y + 1, height - 1); j <= lj; j++) {
+                        final var index = j * width + i;
+                        if ((i != x || j != y) && !added[index]) {
+                            component.missing.add(index);
+                            waiting.computeIfAbsent(index, key -> new ArrayList<>()).add(component);
+                        }
+                    }
+                }
+            } else {
+                component.minX = 0;
+                component.maxX = width - 1;
+                component.minY = 0;
+                component.maxY = height - 1;
+            }
+
+            for (var detection : shape.detections) {
+                final var events = detection.events;
+                for (var i = 0; i < events.size(); i++)
+                    component = link(events.x(i), events.y(i), component);
+
+                for (var corner : detection.cornerSet.iterable()) {
+                    if (corner != null)
+                        component = link(corner.coordinate.getX(), corner.coordinate.getY(), component);
+                }
+            }
+
+            return component;
+        }
+
+        void unlink(Node node) {
+            final var head = nodes.get(node.key);
+            if (head == node) {
+                if (node.chained != null)
+                    nodes.put(node.key, node.chained);
+                else
+                    nodes.remove(node.key);
+            } else {
+                var previous = head;
+                while (previous.chained != node)
+                    previous = previous.chained;
+
+                previous.chained = node.chained;
+            }
+        }
+
+        // The larger component takes the other one.
+        Component union(Component c1, Component c2) {
+            if (c1 == c2)
+                return c1;
+
+            final var large = c1.shapes.size() >= c2.shapes.size() ? c1 : c2;
+            final var small = large == c1 ? c2 : c1;
+            large.shapes.addAll(small.shapes);
+            large.nodes.addAll(small.nodes);
+            large.missing.addAll(small.missing);
+            large.minX = Math.min(large.minX, small.minX);
+            large.maxX = Math.max(large.maxX, small.maxX);
+            large.minY = Math.min(large.minY, small.minY);
+            large.maxY = Math.max(large.maxY, small.maxY);
+            small.parent = large;
+            components.remove(small);
+            return large;
+        }
+    }
+
+    private static class Component {
+
+        final ArrayList<DetectionShape> shapes = new ArrayList<>();
+        final ArrayList<Node> nodes = new ArrayList<>();
+        // The cells around this component which aren't added yet.
+        final HashSet<Integer> missing = new HashSet<>();
+        Component parent = this;
+        int minX;
+        int maxX;
+        int minY;
+        int maxY;
+
+        Component(DetectionShape shape, int x, int y) {
+            shapes.add(shape);
+            minX = maxX = x;
+            minY = maxY = y;
+        }
+
+        Component root() {
+            var root = this;
+            while (root.parent != root) {
+                root.parent = root.parent.parent;
+                root = root.parent;
+            }
+
+            return root;
+        }
+    }
+
+    private static class Node {
+
+        final double x;
+        final double y;
+        final long key;
+        final Component component;
+        Node chained;
+
+        Node(double x, double y, long key, Component component) {
+            this.x = x;
+            this.y = y;
+            this.key = key;
+            this.component = component;
+        }
+    }
+
     private class ProtoPolygon {
 
         private final Ring shell;
+        private final Envelope envelope;
         private PVector<Ring> holes = TreePVector.empty();
 
         public ProtoPolygon(Ring ring) {
             shell = ring;
+            envelope = ring.sequence.expandEnvelope(new Envelope());
         }
 
         void addHole(Ring ring) {
             holes = holes.plus(ring);
         }
 
+        // The first vertex of the ring which isn't on the boundary of this polygon tells whether it is inside.
+        boolean contains(Ring ring) {
+            final var sequence = ring.sequence;
+            if (!envelope.contains(sequence.getCoordinate(0)))
+                return false;
+
+            next:
+            for (var i = 0; i < sequence.size(); i++) {
+                final var coordinate = sequence.getCoordinate(i);
+                final var location = RayCrossingCounter.locatePointInRing(coordinate, shell.sequence);
+                if (location == Location.EXTERIOR)
+                    return false;
+                else if (location == Location.BOUNDARY)
+                    continue;
+
+                for (var hole : holes) {
+                    final var holeLocation = RayCrossingCounter.locatePointInRing(coordinate, hole.sequence);
+                    if (holeLocation == Location.INTERIOR)
+                        return false;
+                    else if (holeLocation == Location.BOUNDARY)
+                        continue next;
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
         public Polygon toPolygon() {
             var shell = this.shell.toLinearRing();
             var holes = Ginsu.map(this.holes, Ring::toLinearRing);
@@ -1,6 +1,7 @@
 package com.github.rthoth.ginsu;
 
 import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.pcollections.PVector;
@@ -10,8 +11,18 @@ import java.util.Optional;
 
 public class PolygonSlicer extends GeometrySlicer<MultiPolygon> {
 
+    private final CoordinateSequenceFactory compact;
+
     public PolygonSlicer(GeometryFactory factory) {
+        this(factory, null);
+    }
+
+    /**
+     * @param compact if not null the sliced rings are copied into sequences of this factory.
+     */
+    public PolygonSlicer(GeometryFactory factory, CoordinateSequenceFactory compact) {
         super(factory);
+        this.compact = compact;
     }
 
     @Override
@@ -34,7 +45,8 @@ public class PolygonSlicer extends GeometrySlicer<MultiPolygon> {
 
     @Override
     public MultiPolygon toGeometry(MultiShape multishape) {
-        return multishape.toMultiPolygon(factory);
+        final var multipolygon = multishape.toMultiPolygon(factory);
+        return compact == null ? multipolygon : Ginsu.compact(multipolygon, compact);
     }
 
     private static class ProtoPolygon {
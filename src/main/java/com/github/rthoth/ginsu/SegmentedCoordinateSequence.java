@@ -6,20 +6,26 @@ import org.locationtech.jts.geom.CoordinateSequences;
 import org.locationtech.jts.geom.Envelope;
 import org.pcollections.PVector;
 
-import java.util.TreeMap;
-
 public class SegmentedCoordinateSequence implements CoordinateSequence {
 
     private final int size;
-    private final TreeMap<IntRange, Segment> index = new TreeMap<>();
+    private final Segment[] segments;
+    // offsets[i] is the index of the first coordinate of segments[i], offsets[segments.length] is the size.
+    private final int[] offsets;
+    // Last segment found, sequential access doesn't need to search. Shared by all threads, it is only a hint.
+    private int cursor = 0;
 
     public SegmentedCoordinateSequence(PVector<Segment> segments) {
+        this.segments = segments.toArray(new Segment[0]);
+        offsets = new int[this.segments.length + 1];
+
         var size = 0;
-        for (var segment : segments) {
-            index.put(IntRange.range(size, segment.size()), Segment.wrap(segment, size));
-            size += segment.size();
+        for (var i = 0; i < this.segments.length; i++) {
+            offsets[i] = size;
+            size += this.segments[i].size();
         }
 
+        offsets[this.segments.length] = size;
         this.size = size;
     }
 
@@ -36,7 +42,7 @@ public class SegmentedCoordinateSequence implements CoordinateSequence {
 
     @Override
     public Envelope expandEnvelope(Envelope env) {
-        for (var segment : index.values()) {
+        for (var segment : segments) {
             env = segment.expandEnvelope(env);
         }
 
@@ -45,17 +51,19 @@ public class SegmentedCoordinateSequence implements CoordinateSequence {
 
     @Override
     public Coordinate getCoordinate(int index) {
-        return this.index.get(IntRange.point(index)).getCoordinate(index);
+        final var i = search(index);
+        return segments[i].getCoordinate(index - offsets[i]);
     }
 
     @Override
     public void getCoordinate(int index, Coordinate coord) {
-        this.index.get(IntRange.point(index)).getCoordinate(index, coord);
+        final var i = search(index);
+        segments[i].getCoordinate(index - offsets[i], coord);
     }
 
     @Override
     public Coordinate getCoordinateCopy(int index) {
-        return this.index.get(IntRange.point(index)).getCoordinate(index).copy();
+        return getCoordinate(index).copy();
     }
 
     @Override
@@ -65,17 +73,45 @@ public class SegmentedCoordinateSequence implements CoordinateSequence {
 
     @Override
     public double getOrdinate(int index, int ordinateIndex) {
-        return this.index.get(IntRange.point(index)).getOrdinate(index, ordinateIndex);
+        final var i = search(index);
+        return segments[i].getOrdinate(index - offsets[i], ordinateIndex);
     }
 
     @Override
     public double getX(int index) {
-        return this.index.get(IntRange.point(index)).getX(index);
+        final var i = search(index);
+        return segments[i].getX(index - offsets[i]);
     }
 
     @Override
     public double getY(int index) {
-        return this.index.get(IntRange.point(index)).getY(index);
+        final var i = search(index);
+        return segments[i].getY(index - offsets[i]);
+    }
+
+    private int search(int index) {
+        if (index >= 0 && index < size) {
+            var i = cursor;
+            if (index >= offsets[i] && index < offsets[i + 1])
+                return i;
+
+            // Sequential access, the next segment.
+            if (++i < segments.length && index >= offsets[i] && index < offsets[i + 1])
+                return cursor = i;
+
+            int low = 0, high = segments.length - 1;
+            while (low < high) {
+                final var middle = (low + high + 1) >>> 1;
+                if (offsets[middle] <= index)
+                    low = middle;
+                else
+                    high = middle - 1;
+            }
+
+            return cursor = low;
+        } else {
+            throw new GinsuException.IllegalArgument("Invalid index: " + index + "!");
+        }
     }
 
     @Override
@@ -11,6 +11,10 @@ public abstract class Shape implements Iterable<CoordinateSequence> {
 
     public static final Shape EMPTY = new Empty();
 
+    public static Shape of(LineString lineString) {
+        return !lineString.isEmpty() ? new NotEmpty(TreePVector.singleton(lineString.getCoordinateSequence()), lineString) : EMPTY;
+    }
+
     public static Shape of(Polygon polygon) {
         if (!polygon.isEmpty()) {
             PVector<CoordinateSequence> sequences = TreePVector
@@ -44,6 +48,8 @@ public abstract class Shape implements Iterable<CoordinateSequence> {
 
     public abstract boolean nonEmpty();
 
+    public abstract LineString toLineString(GeometryFactory factory);
+
     public abstract Polygon toPolygon(GeometryFactory factory);
 
     private static class Empty extends Shape {
@@ -58,6 +64,11 @@ public abstract class Shape implements Iterable<CoordinateSequence> {
             return false;
         }
 
+        @Override
+        public LineString toLineString(GeometryFactory factory) {
+            return factory.createLineString();
+        }
+
         @Override
         public Polygon toPolygon(GeometryFactory factory) {
             return factory.createPolygon();
@@ -84,6 +95,11 @@ public abstract class Shape implements Iterable<CoordinateSequence> {
             return true;
         }
 
+        @Override
+        public LineString toLineString(GeometryFactory factory) {
+            return source instanceof LineString ? (LineString) source : factory.createLineString(sequences.get(0));
+        }
+
         @Override
         public Polygon toPolygon(GeometryFactory factory) {
             if (!(source instanceof Polygon)) {
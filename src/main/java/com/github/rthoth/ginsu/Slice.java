@@ -73,15 +73,39 @@ public abstract class Slice {
 
     public abstract Slice getLower();
 
+    /**
+     * The value of the lower knife, {@link Double#NEGATIVE_INFINITY} if there is none.
+     */
+    public abstract double getLowerValue();
+
+    public abstract double getOffset();
+
     public abstract Slice getUpper();
 
+    /**
+     * The value of the upper knife, {@link Double#POSITIVE_INFINITY} if there is none.
+     */
+    public abstract double getUpperValue();
+
     public abstract double getValue();
 
-    public abstract Coordinate intersection(Coordinate origin, Coordinate target, int border);
+    public Coordinate intersection(Coordinate origin, Coordinate target, int border) {
+        return knifeOf(border).intersection(origin, target);
+    }
+
+    /**
+     * The knife of the border, {@link #UPPER_BORDER} (or beyond) selects the upper one and {@link #LOWER_BORDER} (or
+     * beyond) the lower one.
+     */
+    public abstract Knife<?> knifeOf(int border);
 
     public abstract double ordinateOf(Coordinate coordinate);
 
-    public abstract int positionOf(Coordinate coordinate);
+    public int positionOf(Coordinate coordinate) {
+        return positionOf(coordinate.getX(), coordinate.getY());
+    }
+
+    public abstract int positionOf(double x, double y);
 
     private static class Inner extends Slice {
 
@@ -94,18 +118,33 @@ public abstract class Slice {
             return null;
         }
 
+        @Override
+        public double getLowerValue() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double getOffset() {
+            return 0D;
+        }
+
         @Override
         public Slice getUpper() {
             return null;
         }
 
+        @Override
+        public double getUpperValue() {
+            return Double.POSITIVE_INFINITY;
+        }
+
         @Override
         public double getValue() {
             throw new GinsuException.Unsupported();
         }
 
         @Override
-        public Coordinate intersection(Coordinate origin, Coordinate target, int border) {
+        public Knife<?> knifeOf(int border) {
             throw new GinsuException.Unsupported();
         }
 
@@ -115,7 +154,7 @@ public abstract class Slice {
         }
 
         @Override
-        public int positionOf(Coordinate coordinate) {
+        public int positionOf(double x, double y) {
             return MIDDLE;
         }
     }
@@ -134,20 +173,35 @@ public abstract class Slice {
             return null;
         }
 
+        @Override
+        public double getLowerValue() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double getOffset() {
+            return upper.offset;
+        }
+
         @Override
         public Slice getUpper() {
             return this;
         }
 
+        @Override
+        public double getUpperValue() {
+            return upper.value;
+        }
+
         @Override
         public double getValue() {
             return upper.value;
         }
 
         @Override
-        public Coordinate intersection(Coordinate origin, Coordinate target, int border) {
+        public Knife<?> knifeOf(int border) {
             if (border > 1)
-                return upper.intersection(origin, target);
+                return upper;
             else
                 throw new GinsuException.IllegalArgument(String.format("Border [%d]", border));
         }
@@ -158,8 +212,8 @@ public abstract class Slice {
         }
 
         @Override
-        public int positionOf(Coordinate coordinate) {
-            switch (upper.positionOf(coordinate)) {
+        public int positionOf(double x, double y) {
+            switch (upper.positionOf(x, y)) {
                 case -1:
                     return MIDDLE;
 
@@ -188,22 +242,37 @@ public abstract class Slice {
             return new Upper<>(lower);
         }
 
+        @Override
+        public double getLowerValue() {
+            return lower.value;
+        }
+
+        @Override
+        public double getOffset() {
+            return lower.offset;
+        }
+
         @Override
         public Slice getUpper() {
             return new Lower<>(upper);
         }
 
+        @Override
+        public double getUpperValue() {
+            return upper.value;
+        }
+
         @Override
         public double getValue() {
             throw new GinsuException.Unsupported();
         }
 
         @Override
-        public Coordinate intersection(Coordinate origin, Coordinate target, int border) {
+        public Knife<?> knifeOf(int border) {
             if (border > 1)
-                return upper.intersection(origin, target);
+                return upper;
             else if (border < 1)
-                return lower.intersection(origin, target);
+                return lower;
             else
                 throw new GinsuException.IllegalArgument(String.format("Border [%d]!", border));
         }
@@ -214,13 +283,13 @@ public abstract class Slice {
         }
 
         @Override
-        public int positionOf(Coordinate coordinate) {
-            switch (lower.positionOf(coordinate)) {
+        public int positionOf(double x, double y) {
+            switch (lower.positionOf(x, y)) {
                 case -1:
                     return LOWER;
 
                 case 1:
-                    switch (upper.positionOf(coordinate)) {
+                    switch (upper.positionOf(x, y)) {
                         case 1:
                             return UPPER;
                         case -1:
@@ -249,20 +318,35 @@ public abstract class Slice {
             return this;
         }
 
+        @Override
+        public double getLowerValue() {
+            return lower.value;
+        }
+
+        @Override
+        public double getOffset() {
+            return lower.offset;
+        }
+
         @Override
         public Slice getUpper() {
             return null;
         }
 
+        @Override
+        public double getUpperValue() {
+            return Double.POSITIVE_INFINITY;
+        }
+
         @Override
         public double getValue() {
             return lower.value;
         }
 
         @Override
-        public Coordinate intersection(Coordinate origin, Coordinate target, int border) {
+        public Knife<?> knifeOf(int border) {
             if (border < 1)
-                return lower.intersection(origin, target);
+                return lower;
             else
                 throw new GinsuException.IllegalArgument(String.format("Border [%d]!", border));
         }
@@ -273,8 +357,8 @@ public abstract class Slice {
         }
 
         @Override
-        public int positionOf(Coordinate coordinate) {
-            switch (lower.positionOf(coordinate)) {
+        public int positionOf(double x, double y) {
+            switch (lower.positionOf(x, y)) {
                 case -1:
                     return LOWER;
 
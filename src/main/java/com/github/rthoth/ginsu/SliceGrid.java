@@ -1,12 +1,17 @@
 package com.github.rthoth.ginsu;
 
 import org.locationtech.jts.geom.CoordinateSequence;
-import org.locationtech.jts.geom.CoordinateSequences;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.pcollections.PVector;
 import org.pcollections.TreePVector;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 public class SliceGrid<T extends Geometry> {
 
@@ -15,11 +20,40 @@ public class SliceGrid<T extends Geometry> {
     protected final GeometrySlicer<T> slicer;
     protected final double offset;
 
+    private final MultiDetector xDetector;
+    private final MultiDetector yDetector;
+
     public SliceGrid(PVector<Knife.X> x, PVector<Knife.Y> y, double offset, GeometrySlicer<T> slicer) {
-        xSlices = Slice.from(x);
-        ySlices = Slice.from(y);
+        this(Slice.from(x), Slice.from(y), slicer, offset);
+    }
+
+    private SliceGrid(PVector<Slice> xSlices, PVector<Slice> ySlices, GeometrySlicer<T> slicer, double offset) {
+        this.xSlices = xSlices;
+        this.ySlices = ySlices;
         this.slicer = slicer;
         this.offset = offset;
+        xDetector = new MultiDetector(xSlices);
+        yDetector = new MultiDetector(ySlices);
+    }
+
+    /**
+     * A SliceGrid over slices already created by {@link Slice#from(Iterable)}, so many grids (one per geometry
+     * factory, for instance) can share them.
+     */
+    public static <T extends Geometry> SliceGrid<T> from(PVector<Slice> xSlices, PVector<Slice> ySlices, double offset, GeometrySlicer<T> slicer) {
+        return new SliceGrid<>(xSlices, ySlices, slicer, offset);
+    }
+
+    private static Envelope envelopeOf(MultiShape multishape) {
+        final var source = multishape.getSource();
+        if (source != null)
+            return source.getEnvelopeInternal();
+
+        final var envelope = new Envelope();
+        for (var shape : multishape)
+            Ginsu.next(shape.iterator()).expandEnvelope(envelope);
+
+        return envelope;
     }
 
     @SuppressWarnings("unused")
@@ -35,92 +69,225 @@ public class SliceGrid<T extends Geometry> {
         }
     }
 
-    private PVector<Detection> detect(PVector<Slice> slices, CoordinateSequence sequence) {
-        final var factory = new Event.Factory(sequence);
-        final var detectors = Ginsu.map(slices, slice -> Detector.create(slice, factory));
-
-        final var firstCoordinate = sequence.getCoordinate(0);
-        for (var detector : detectors)
-            detector.begin(firstCoordinate);
+    /**
+     * Same as {@link #apply(MultiShape, Order)}, the shapes, their holes and the cells of the first dimension are
+     * sliced as independent tasks on the executor.
+     */
+    public CompletableFuture<Grid<T>> apply(MultiShape multishape, Order order, Executor executor) {
+        if (order == Order.XY || (order == Order.AUTOMATIC && xSlices.size() >= ySlices.size())) {
+            return slice(xDetector, yDetector, multishape, executor)
+                    .thenApply(data -> new Grid.XY<>(xSlices.size(), ySlices.size(), data).toFlat());
+        } else {
+            return slice(yDetector, xDetector, multishape, executor)
+                    .thenApply(data -> new Grid.YX<>(xSlices.size(), ySlices.size(), data).toFlat());
+        }
+    }
 
-        final var lastIndex = sequence.size() - 1;
-        for (var i = 1; i < lastIndex; i++) {
-            final var coordinate = sequence.getCoordinate(i);
-            for (var detector : detectors)
-                detector.check(i, coordinate);
+    /**
+     * Same as {@link #apply(MultiShape, Order)} but each cell is sent to the consumer as soon as its column is sliced,
+     * without building the grid.
+     */
+    public void forEach(MultiShape multishape, Order order, Consumer<Grid.Entry<T>> consumer) {
+        if (order == Order.XY || (order == Order.AUTOMATIC && xSlices.size() >= ySlices.size())) {
+            slice(xDetector, yDetector, multishape, (i, j, geometry) -> consumer.accept(new Grid.Entry<>(i, j, geometry)));
+        } else {
+            slice(yDetector, xDetector, multishape, (i, j, geometry) -> consumer.accept(new Grid.Entry<>(j, i, geometry)));
         }
+    }
 
-        final var lastCoordinate = sequence.getCoordinate(lastIndex);
-        final var isRing = CoordinateSequences.isRing(sequence);
-        return Ginsu.map(detectors, detector -> detector.end(lastIndex, lastCoordinate, isRing));
+    private void add(ArrayList<Ongoing> ongoings, int first, PVector<Detection> detections) {
+        for (var ongoing : ongoings)
+            ongoing.add(detections.get(ongoing.index - first));
     }
 
-    private PVector<MultiShape> slice(PVector<Slice> slices, Shape shape) {
-        final var iterator = shape.iterator();
-        var ongoings = TreePVector.<Ongoing>empty();
-        var result = new ArrayList<MultiShape>(slices.size());
-
-        for (var entry : Ginsu.zipWithIndex(detect(slices, Ginsu.next(iterator)))) {
-            var detection = entry.value;
-            var optional = slicer.preApply(detection, shape);
-            if (optional.isEmpty()) {
-                ongoings = ongoings.plus(new Ongoing(entry.index, detection, slices.get(entry.index), shape));
-                result.add(null);
-            } else {
-                result.add(MultiShape.of(optional.get()));
-            }
+    /*
+     * The slices missed by the envelope of the shell are empty and a slice which contains it keeps the whole shape,
+     * only the other ones are detected.
+     */
+    private ArrayList<Ongoing> begin(MultiDetector detector, Shape shape, CoordinateSequence shell, ArrayList<MultiShape> result) {
+        final var ongoings = new ArrayList<Ongoing>();
+        final var envelope = shell.expandEnvelope(new Envelope());
+        final var lower = detector.lower(envelope.getMinX(), envelope.getMinY());
+        final var upper = detector.upper(envelope.getMaxX(), envelope.getMaxY());
+
+        if (lower == upper && detector.get(lower).positionOf(envelope.getMinX(), envelope.getMinY()) == Slice.MIDDLE
+                && detector.get(lower).positionOf(envelope.getMaxX(), envelope.getMaxY()) == Slice.MIDDLE) {
+            for (var i = 0; i < detector.size(); i++)
+                result.add(i == lower ? MultiShape.of(shape) : MultiShape.EMPTY);
+
+            return ongoings;
         }
 
-        if (!ongoings.isEmpty()) {
-            var ongoingSlices = Ginsu.map(ongoings, o -> o.slice);
+        for (var i = 0; i < lower; i++)
+            result.add(MultiShape.EMPTY);
 
-            while (iterator.hasNext()) {
-                for (var entry : Ginsu.zipWithIndex(detect(ongoingSlices, iterator.next()))) {
-                    ongoings.get(entry.index).add(entry.value);
+        if (lower <= upper) {
+            for (var entry : Ginsu.zipWithIndex(detector.subDetector(lower, upper + 1).detect(shell))) {
+                var index = lower + entry.index;
+                var detection = entry.value;
+                var optional = slicer.preApply(detection, shape, detector.get(index));
+                if (optional.isEmpty()) {
+                    ongoings.add(new Ongoing(index, detection, detector.get(index), shape));
+                    result.add(null);
+                } else {
+                    result.add(MultiShape.of(optional.get()));
                 }
             }
+        }
+
+        for (var i = Math.max(lower, upper + 1); i < detector.size(); i++)
+            result.add(MultiShape.EMPTY);
+
+        return ongoings;
+    }
+
+    private int lower(MultiDetector detector, Envelope envelope) {
+        return envelope != null ? detector.lower(envelope.getMinX(), envelope.getMinY()) : 0;
+    }
+
+    private PVector<MultiShape> slice(MultiDetector detector, Shape shape) {
+        final var iterator = shape.iterator();
+        final var result = new ArrayList<MultiShape>(detector.size());
+        final var ongoings = begin(detector, shape, Ginsu.next(iterator), result);
+
+        if (!ongoings.isEmpty()) {
+            final var first = ongoings.get(0).index;
+            final var touched = touched(detector, ongoings);
+            while (iterator.hasNext())
+                add(ongoings, first, touched.detect(iterator.next()));
 
             for (var ongoing : ongoings) {
                 result.set(ongoing.index, ongoing.apply());
             }
         }
 
-        return TreePVector.from(result);
+        return Ginsu.freeze(result);
     }
 
-    private PVector<T> slice(PVector<Slice> _1, PVector<Slice> _2, MultiShape multiShape) {
-        var data = TreePVector.<T>empty();
-        if (!_1.isEmpty() && !_2.isEmpty()) {
-            for (var _1Cell : slice(_1, multiShape)) {
-                for (var _2Cell : slice(_2, _1Cell)) {
-                    data = data.plus(slicer.toGeometry(_2Cell));
+    private CompletableFuture<PVector<MultiShape>> slice(MultiDetector detector, Shape shape, Executor executor) {
+        final var iterator = shape.iterator();
+        final var shell = Ginsu.next(iterator);
+        final var result = new ArrayList<MultiShape>(detector.size());
+
+        return CompletableFuture.supplyAsync(() -> begin(detector, shape, shell, result), executor).thenCompose(ongoings -> {
+            if (ongoings.isEmpty())
+                return CompletableFuture.completedFuture(Ginsu.freeze(result));
+
+            final var first = ongoings.get(0).index;
+            final var touched = touched(detector, ongoings);
+            final var holes = Ginsu.map(iterator, hole -> CompletableFuture.supplyAsync(() -> touched.detect(hole), executor));
+
+            return CompletableFuture.allOf(holes.toArray(CompletableFuture[]::new)).thenCompose(v -> {
+                for (var hole : holes)
+                    add(ongoings, first, hole.join());
+
+                final var cells = Ginsu.map(ongoings, ongoing -> CompletableFuture.supplyAsync(ongoing::apply, executor));
+                return CompletableFuture.allOf(cells.toArray(CompletableFuture[]::new)).thenApply(w -> {
+                    for (var i = 0; i < cells.size(); i++) {
+                        result.set(ongoings.get(i).index, cells.get(i).join());
+                    }
+
+                    return Ginsu.freeze(result);
+                });
+            });
+        });
+    }
+
+    private CompletableFuture<PVector<MultiShape>> slice(MultiDetector detector, MultiShape multishape, Executor executor) {
+        if (detector.size() > 0 && multishape.nonEmpty()) {
+            final var futures = Ginsu.map(multishape, shape -> slice(detector, shape, executor));
+            return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .thenApply(v -> Ginsu.flatten(Ginsu.map(futures, CompletableFuture::join)));
+        } else {
+            return CompletableFuture.completedFuture(slice(detector, multishape));
+        }
+    }
+
+    private CompletableFuture<PVector<T>> slice(MultiDetector _1, MultiDetector _2, MultiShape multiShape, Executor executor) {
+        if (_1.size() > 0 && _2.size() > 0) {
+            return slice(_1, multiShape, executor).thenCompose(_1Cells -> {
+                final var columns = Ginsu.map(_1Cells, _1Cell -> slice(_2, _1Cell, executor)
+                        .thenApply(_2Cells -> Ginsu.map(_2Cells, slicer::toGeometry)));
+
+                return CompletableFuture.allOf(columns.toArray(CompletableFuture[]::new)).thenApply(v -> {
+                    final var data = new ArrayList<T>(_1.size() * _2.size());
+                    for (var column : columns)
+                        data.addAll(column.join());
+
+                    return Ginsu.freeze(data);
+                });
+            });
+        } else if (_1.size() > 0) {
+            return slice(_1, multiShape, executor).thenApply(cells -> Ginsu.map(cells, slicer::toGeometry));
+        } else if (_2.size() > 0) {
+            return slice(_2, multiShape, executor).thenApply(cells -> Ginsu.map(cells, slicer::toGeometry));
+        } else {
+            return CompletableFuture.supplyAsync(() -> TreePVector.singleton(slicer.toGeometry(multiShape)), executor);
+        }
+    }
+
+    private PVector<T> slice(MultiDetector _1, MultiDetector _2, MultiShape multiShape) {
+        var data = new ArrayList<T>(Math.max(_1.size(), 1) * Math.max(_2.size(), 1));
+        slice(_1, _2, multiShape, (i, j, geometry) -> data.add(geometry));
+        return Ginsu.freeze(data);
+    }
+
+    /*
+     * Only the slices touched by the envelope of the multishape are detected, the cells of the others are empty.
+     */
+    private void slice(MultiDetector _1, MultiDetector _2, MultiShape multiShape, Emitter<T> emitter) {
+        final var envelope = multiShape.nonEmpty() ? envelopeOf(multiShape) : null;
+
+        if (_1.size() > 0 && _2.size() > 0) {
+            final var _1Lower = lower(_1, envelope);
+            final var _1Upper = upper(_1, envelope);
+            final var _2Lower = lower(_2, envelope);
+            final var _2Upper = upper(_2, envelope);
+            final var _1Cells = _1Lower <= _1Upper ? new ArrayList<>(slice(_1.subDetector(_1Lower, _1Upper + 1), multiShape)) : null;
+            final var _2Touched = _2Lower <= _2Upper ? _2.subDetector(_2Lower, _2Upper + 1) : null;
+
+            for (var i = 0; i < _1.size(); i++) {
+                if (i >= _1Lower && i <= _1Upper) {
+                    // The column is released as soon as it is sliced.
+                    final var _2Cells = slice(_2Touched, _1Cells.set(i - _1Lower, null));
+                    for (var j = 0; j < _2.size(); j++) {
+                        emitter.emit(i, j, slicer.toGeometry(j >= _2Lower && j <= _2Upper ? _2Cells.get(j - _2Lower) : MultiShape.EMPTY));
+                    }
+                } else {
+                    for (var j = 0; j < _2.size(); j++) {
+                        emitter.emit(i, j, slicer.toGeometry(MultiShape.EMPTY));
+                    }
                 }
             }
-        } else if (!_1.isEmpty()) {
-            for (var _1Cell : slice(_1, multiShape)) {
-                data = data.plus(slicer.toGeometry(_1Cell));
-            }
-        } else if (!_2.isEmpty()) {
-            for (var _2Cell : slice(_2, multiShape)) {
-                data = data.plus(slicer.toGeometry(_2Cell));
-            }
+        } else if (_1.size() > 0) {
+            slice(_1, envelope, multiShape, (geometry, i) -> emitter.emit(i, 0, geometry));
+        } else if (_2.size() > 0) {
+            slice(_2, envelope, multiShape, (geometry, j) -> emitter.emit(0, j, geometry));
         } else {
-            data = data.plus(slicer.toGeometry(multiShape));
+            emitter.emit(0, 0, slicer.toGeometry(multiShape));
         }
+    }
+
+    private void slice(MultiDetector detector, Envelope envelope, MultiShape multiShape, ObjIntConsumer<T> consumer) {
+        final var lower = lower(detector, envelope);
+        final var upper = upper(detector, envelope);
+        final var cells = lower <= upper ? slice(detector.subDetector(lower, upper + 1), multiShape) : null;
 
-        return data;
+        for (var i = 0; i < detector.size(); i++) {
+            consumer.accept(slicer.toGeometry(i >= lower && i <= upper ? cells.get(i - lower) : MultiShape.EMPTY), i);
+        }
     }
 
-    private PVector<MultiShape> slice(PVector<Slice> slices, MultiShape multishape) {
-        if (!slices.isEmpty()) {
+    private PVector<MultiShape> slice(MultiDetector detector, MultiShape multishape) {
+        if (detector.size() > 0) {
             if (multishape.nonEmpty()) {
-                var multishapes = TreePVector.<PVector<MultiShape>>empty();
+                var multishapes = new ArrayList<PVector<MultiShape>>();
                 for (var shape : multishape)
-                    multishapes = multishapes.plus(slice(slices, shape));
+                    multishapes.add(slice(detector, shape));
 
-                return Ginsu.flatten(multishapes);
+                return Ginsu.flatten(Ginsu.freeze(multishapes));
             } else {
-                return Ginsu.map(slices, cell -> MultiShape.EMPTY);
+                return Ginsu.freeze(Collections.nCopies(detector.size(), MultiShape.EMPTY));
             }
         } else {
             // TODO: Check!
@@ -128,12 +295,28 @@ public class SliceGrid<T extends Geometry> {
         }
     }
 
+    /*
+     * The holes are only detected from the first to the last ongoing slice.
+     */
+    private MultiDetector touched(MultiDetector detector, ArrayList<Ongoing> ongoings) {
+        return detector.subDetector(ongoings.get(0).index, ongoings.get(ongoings.size() - 1).index + 1);
+    }
+
+    private int upper(MultiDetector detector, Envelope envelope) {
+        return envelope != null ? detector.upper(envelope.getMaxX(), envelope.getMaxY()) : -1;
+    }
+
     private Grid<T> xy(MultiShape multishape) {
-        return new Grid.XY<>(xSlices.size(), ySlices.size(), slice(xSlices, ySlices, multishape));
+        return new Grid.XY<>(xSlices.size(), ySlices.size(), slice(xDetector, yDetector, multishape)).toFlat();
     }
 
     private Grid<T> yx(MultiShape multishape) {
-        return new Grid.YX<>(xSlices.size(), ySlices.size(), slice(ySlices, xSlices, multishape));
+        return new Grid.YX<>(xSlices.size(), ySlices.size(), slice(yDetector, xDetector, multishape)).toFlat();
+    }
+
+    private interface Emitter<T> {
+
+        void emit(int _1, int _2, T geometry);
     }
 
     private class Ongoing {
@@ -143,22 +326,22 @@ public class SliceGrid<T extends Geometry> {
         final Slice slice;
         final Shape shape;
 
-        private PVector<Detection> detections;
+        private final ArrayList<Detection> detections = new ArrayList<>();
 
         public Ongoing(int index, Detection detection, Slice slice, Shape shape) {
             this.index = index;
             this.detection = detection;
             this.slice = slice;
             this.shape = shape;
-            detections = TreePVector.singleton(detection);
+            detections.add(detection);
         }
 
         public void add(Detection detection) {
-            detections = detections.plus(detection);
+            detections.add(detection);
         }
 
         public MultiShape apply() {
-            return slicer.apply(new DetectionShape(detections, shape), slice.getDimension(), offset);
+            return slicer.apply(new DetectionShape(Ginsu.freeze(detections), shape), slice, offset);
         }
     }
 }
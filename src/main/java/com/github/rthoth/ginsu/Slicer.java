@@ -3,9 +3,17 @@ package com.github.rthoth.ginsu;
 import com.github.rthoth.ginsu.Knife.X;
 import com.github.rthoth.ginsu.Knife.Y;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
 import org.pcollections.PVector;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Slicer {
 
@@ -13,6 +21,9 @@ public class Slicer {
     private final PVector<Y> y;
     private final double offset;
     private final double extrusion;
+    private final CoordinateSequenceFactory compact;
+    private final PVector<Slice> xSlices;
+    private final PVector<Slice> ySlices;
 
     @SuppressWarnings("unused")
     public Slicer(double[] x, double[] y) {
@@ -24,15 +35,22 @@ public class Slicer {
     }
 
     protected Slicer(PVector<X> x, PVector<Y> y, double offset, double extrusion) {
+        this(x, y, offset, extrusion, null);
+    }
+
+    private Slicer(PVector<X> x, PVector<Y> y, double offset, double extrusion, CoordinateSequenceFactory compact) {
         isValid(x);
         isValid(y);
         this.x = x;
         this.y = y;
         this.offset = offset;
         this.extrusion = extrusion;
+        this.compact = compact;
+        xSlices = Slice.from(x);
+        ySlices = Slice.from(y);
     }
 
-    private static <K extends Knife<K>> void isValid(PVector<K> vector) {
+    static <K extends Knife<K>> void isValid(PVector<K> vector) {
         if (!vector.isEmpty()) {
             final var iterator = vector.iterator();
             var current = Ginsu.next(iterator);
@@ -47,14 +65,38 @@ public class Slicer {
         }
     }
 
+    /**
+     * A slicer (and its merger) whose cell rings are copied into {@link PackedCoordinateSequence.Double}, instead of
+     * being views of the sliced geometry, so the cells don't keep it alive.
+     */
+    public Slicer compact() {
+        return compact(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+    }
+
+    public Slicer compact(CoordinateSequenceFactory factory) {
+        return new Slicer(x, y, offset, extrusion, factory);
+    }
+
     public Slicer extrude(double extrusion) {
         if (extrusion != this.extrusion) {
-            return new Slicer(Ginsu.map(x, k -> k.extrude(extrusion)), Ginsu.map(y, k -> k.extrude(extrusion)), offset, extrusion);
+            return new Slicer(Ginsu.map(x, k -> k.extrude(extrusion)), Ginsu.map(y, k -> k.extrude(extrusion)), offset, extrusion, compact);
         } else {
             return this;
         }
     }
 
+    public void forEachPolygonal(Polygonal polygonal, Consumer<Grid.Entry<MultiPolygon>> consumer) {
+        this.forEachPolygonal(polygonal, Order.AUTOMATIC, consumer);
+    }
+
+    /**
+     * Streaming version of {@link #polygonal(Polygonal, Order)}, every cell is sent to the consumer once its column is
+     * sliced and no grid is kept.
+     */
+    public void forEachPolygonal(Polygonal polygonal, Order order, Consumer<Grid.Entry<MultiPolygon>> consumer) {
+        polygonGrid(((Geometry) polygonal).getFactory()).forEach(MultiShape.of(polygonal), order, consumer);
+    }
+
     public PVector<X> getX() {
         return x;
     }
@@ -69,11 +111,16 @@ public class Slicer {
     }
 
     public Grid<MultiLineString> lineal(Lineal lineal, Order order) {
-        throw new GinsuException.Unsupported();
+        return lineGrid(((Geometry) lineal).getFactory()).apply(MultiShape.of(lineal), order);
+    }
+
+    private SliceGrid<MultiLineString> lineGrid(GeometryFactory factory) {
+        return SliceGrid.from(xSlices, ySlices, offset, new LineSlicer(factory, compact));
     }
 
     public Merger merger() {
-        return new Merger(x, y, offset);
+        var merger = new Merger(x, y, offset);
+        return compact == null ? merger : merger.compact(compact);
     }
 
     @SuppressWarnings("unused")
@@ -82,7 +129,34 @@ public class Slicer {
     }
 
     public Grid<MultiPolygon> polygonal(Polygonal polygonal, Order order) {
-        return new SliceGrid<>(x, y, offset, new PolygonSlicer(((Geometry) polygonal).getFactory())).apply(MultiShape.of(polygonal), order);
+        return polygonGrid(((Geometry) polygonal).getFactory()).apply(MultiShape.of(polygonal), order);
+    }
+
+    public CompletionStage<Grid<MultiPolygon>> polygonal(Polygonal polygonal, Executor executor) {
+        return this.polygonal(polygonal, Order.AUTOMATIC, executor);
+    }
+
+    public CompletionStage<Grid<MultiPolygon>> polygonal(Polygonal polygonal, Order order, Executor executor) {
+        return polygonGrid(((Geometry) polygonal).getFactory()).apply(MultiShape.of(polygonal), order, executor);
+    }
+
+    public Stream<Grid<MultiPolygon>> polygonal(Iterable<? extends Polygonal> polygonals) {
+        return this.polygonal(polygonals, Order.AUTOMATIC);
+    }
+
+    /**
+     * Lazily slices every polygonal, the slices are shared by all of them and only the cells touched by the envelope
+     * of each polygonal are detected.
+     */
+    public Stream<Grid<MultiPolygon>> polygonal(Iterable<? extends Polygonal> polygonals, Order order) {
+        final var grids = new ConcurrentHashMap<GeometryFactory, SliceGrid<MultiPolygon>>();
+        return StreamSupport.stream(polygonals.spliterator(), false)
+                .map(polygonal -> grids.computeIfAbsent(((Geometry) polygonal).getFactory(), this::polygonGrid)
+                        .apply(MultiShape.of(polygonal), order));
+    }
+
+    private SliceGrid<MultiPolygon> polygonGrid(GeometryFactory factory) {
+        return SliceGrid.from(xSlices, ySlices, offset, new PolygonSlicer(factory, compact));
     }
 
     @SuppressWarnings("unused")
@@ -0,0 +1,33 @@
+package com.github.rthoth.ginsu;
+
+import org.pcollections.PVector;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent suppliers and blocks until all of them are done, a failed supplier rethrows its own exception.
+ * <p>
+ * This is the Java 11 version, the suppliers are forked and joined as tasks of the common pool, so a supplier which
+ * calls it again helps with the pending tasks instead of blocking its worker. On Java 21+ the multi-release jar replaces
+ * it by the one in src/main/java21, which runs every supplier on its own virtual thread.
+ */
+final class Tasks {
+
+    private Tasks() {
+    }
+
+    static <T> PVector<T> all(Iterable<? extends Supplier<T>> suppliers) {
+        final var tasks = Ginsu.map(suppliers, supplier -> ForkJoinTask.adapt(supplier::get));
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(tasks);
+            }));
+        }
+
+        return Ginsu.map(tasks, ForkJoinTask::join);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.rthoth.ginsu;
+
+import org.pcollections.PVector;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent suppliers and blocks until all of them are done, a failed supplier rethrows its own exception.
+ * <p>
+ * Java 21+ version, every supplier runs on its own virtual thread and the caller waits for them when the executor is
+ * closed, so a blocking supplier doesn't hold a carrier thread.
+ */
+final class Tasks {
+
+    private Tasks() {
+    }
+
+    static <T> PVector<T> all(Iterable<? extends Supplier<T>> suppliers) {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var futures = Ginsu.map(suppliers, supplier -> executor.submit(supplier::get));
+            return Ginsu.map(futures, Tasks::join);
+        }
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            else if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            else
+                throw new GinsuException.IllegalState(String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GinsuException.IllegalState("Interrupted!");
+        }
+    }
+}
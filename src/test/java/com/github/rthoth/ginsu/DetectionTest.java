@@ -243,4 +243,134 @@ public class DetectionTest extends AbstractTest implements DetectionUtil {
                         "Corner(-2147483648, (4.0, 10.0))"
                 );
     }
+
+    @Test
+    public void t17() {
+        var sequence = parseSequence("(-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7)");
+        var extruded = Ginsu.map(new double[]{-6, -5, -1, 0, 2, 5, 8}, v -> new Knife.X(v, Ginsu.DEFAULT_OFFSET, 0.5D));
+
+        for (var slices : list(Slice.from(x(new double[]{-6, -5, -1, 0, 2, 5, 8})), Slice.from(y(new double[]{-7, -3, -1, 6, 7, 9})), Slice.from(extruded))) {
+            var detections = new MultiDetector(slices).detect(sequence);
+            assertThat(detections).hasSize(slices.size());
+
+            for (var i = 0; i < slices.size(); i++) {
+                var expected = Detector.detect(slices.get(i), sequence);
+                assertThat(Ginsu.map(detections.get(i).events.getVector(), Event::toString))
+                        .containsExactlyElementsIn(Ginsu.map(expected.events.getVector(), Event::toString))
+                        .inOrder();
+                assertThat(detections.get(i).startsInside).isEqualTo(expected.startsInside);
+            }
+        }
+    }
+
+    @Test
+    public void t18() {
+        for (var sequence : list(
+                "(-1 3, 5 -3, 5 -5, 3 -6, 5 -6, 5 -7, 1 -7, 3 -5, -1 -1, -1 0, 4 -5, 5 -4, -1 2, -1 3)",
+                "(0 -2, 1 2, 2 -2, 3 2, 4 -2, 5 2, 6 -2, 7 2, 8 -2, 9 2, 10 -2, 10 -3, 0 -3, 0 -2)")) {
+            var events = Detector.detect(middle(y(-1), y(1)), parseSequence(sequence)).events;
+            var vector = events.getVector();
+            var size = vector.size();
+            assertThat(size).isGreaterThan(1);
+
+            for (var i = 0; i < size; i++) {
+                assertThat(events.next(vector.get(i)).get()).isSameInstanceAs(vector.get((i + 1) % size));
+                assertThat(events.previous(vector.get(i)).get()).isSameInstanceAs(vector.get((i + size - 1) % size));
+            }
+        }
+    }
+
+    @Test
+    public void t19() {
+        var sequence = parseSequence("(-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7)");
+        var slices = Slice.from(x(new double[]{-6, -5, -1, 0, 2, 5, 8}));
+        var detector = new MultiDetector(slices);
+
+        // The sub detectors share the scratch of the whole one, in any order.
+        for (var range : list(new int[]{2, 5}, new int[]{0, 8}, new int[]{7, 8}, new int[]{0, 1}, new int[]{3, 3}, new int[]{1, 7})) {
+            var sub = detector.subDetector(range[0], range[1]);
+            var detections = sub.detect(sequence);
+            assertThat(detections).hasSize(range[1] - range[0]);
+
+            for (var i = 0; i < detections.size(); i++) {
+                var expected = Detector.detect(slices.get(range[0] + i), sequence);
+                assertThat(sub.get(i)).isSameInstanceAs(slices.get(range[0] + i));
+                assertThat(Ginsu.map(detections.get(i).events.getVector(), Event::toString))
+                        .containsExactlyElementsIn(Ginsu.map(expected.events.getVector(), Event::toString))
+                        .inOrder();
+                assertThat(detections.get(i).startsInside).isEqualTo(expected.startsInside);
+            }
+        }
+    }
+
+    @Test
+    public void t20() {
+        var sequences = list(
+                parseSequence("(-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7)"),
+                parseSequence("(6 -3, 5 -5, 3 -6, 6 -6, 6 -3)"),
+                parseSequence("(-1 3, 5 -3, 5 -5, 3 -6, 5 -6, 5 -7, 1 -7, 3 -5, -1 -1, -1 0, 4 -5, 5 -4, -1 2, -1 3)"),
+                parseSequence("(0 -2, 1 2, 2 -2, 3 2, 4 -2, 5 2, 6 -2, 7 2, 8 -2, 9 2, 10 -2, 10 -3, 0 -3, 0 -2)"),
+                parseSequence("(-1 -1, 5 -1, 5 5, -1 5, -1 -1)"));
+        var slices = Slice.from(y(new double[]{-7, -3, -1, 2, 6}));
+        var x = middle(x(-1), x(5));
+        var y = middle(y(-1), y(2));
+
+        // One detector of each kind, reset for every ring.
+        var multiDetector = new MultiDetector(slices);
+        var xyDetector = new Detector(new Detector.XYController(x, y, new Event.Factory(sequences.get(0)), true));
+
+        for (var round = 0; round < 2; round++) {
+            for (var sequence : sequences) {
+                var detections = multiDetector.detect(sequence);
+                for (var i = 0; i < slices.size(); i++)
+                    assertSameDetection(detections.get(i), Detector.detect(slices.get(i), sequence));
+
+                xyDetector.reset(new Event.Factory(sequence));
+                xyDetector.begin(sequence.getCoordinate(0));
+                for (var i = 1; i < sequence.size() - 1; i++)
+                    xyDetector.check(i, sequence.getCoordinate(i));
+
+                var detection = xyDetector.end(sequence.size() - 1, sequence.getCoordinate(sequence.size() - 1), true);
+                var expected = Detector.detect(x, y, sequence, true);
+                assertSameDetection(detection, expected);
+                assertThat(Ginsu.map(detection.cornerSet.iterable(), Objects::toString))
+                        .containsExactlyElementsIn(Ginsu.map(expected.cornerSet.iterable(), Objects::toString))
+                        .inOrder();
+            }
+        }
+    }
+
+    @Test
+    public void t21() {
+        // The events are read from the columns of the table, the same position gives the same event.
+        for (var sequence : list(
+                "(-1 3, 5 -3, 5 -5, 3 -6, 5 -6, 5 -7, 1 -7, 3 -5, -1 -1, -1 0, 4 -5, 5 -4, -1 2, -1 3)",
+                "(-1 -1, 5 -1, 5 5, -1 5, -1 -1)")) {
+            var detection = Detector.detect(middle(y(-1), y(2)), parseSequence(sequence));
+            var events = detection.events;
+            assertThat(events.nonEmpty()).isTrue();
+
+            for (var i = 0; i < events.size(); i++) {
+                var event = events.get(i);
+                assertThat(events.get(i)).isSameInstanceAs(event);
+                assertThat(event.position).isEqualTo(i);
+                assertThat(events.type(i)).isEqualTo(event.type);
+                assertThat(events.index(i)).isEqualTo(event.index);
+                assertThat(events.isReference(i)).isEqualTo(event.coordinate == null);
+                assertThat(events.getCoordinate(i)).isEqualTo(event.getCoordinate());
+                assertThat(events.x(i)).isEqualTo(event.getCoordinate().getX());
+                assertThat(events.y(i)).isEqualTo(event.getCoordinate().getY());
+            }
+
+            assertSameDetection(new Detection(detection.sequence, events.getVector(), detection.isRing, detection.startsInside, detection.cornerSet), detection);
+        }
+    }
+
+    private void assertSameDetection(Detection actual, Detection expected) {
+        assertThat(actual.sequence).isSameInstanceAs(expected.sequence);
+        assertThat(Ginsu.map(actual.events.getVector(), Event::toString))
+                .containsExactlyElementsIn(Ginsu.map(expected.events.getVector(), Event::toString))
+                .inOrder();
+        assertThat(actual.startsInside).isEqualTo(expected.startsInside);
+    }
 }
@@ -17,4 +17,20 @@ public class GridTest {
         assertThat(Ginsu.map(xy.iterable(), Grid.Entry::toString))
                 .containsExactlyElementsIn(Ginsu.map(copy.iterable(), Grid.Entry::toString));
     }
+
+    @Test
+    public void t02() {
+        var xy = new Grid.XY<>(2, 3, Ginsu.freeze(Arrays.asList(1, 2, 3, 4, 5, 6)));
+        var yx = new Grid.YX<>(2, 3, Ginsu.freeze(Arrays.asList(1, 2, 3, 4, 5, 6)));
+
+        assertThat(Ginsu.map(xy.toFlat().iterable(), Grid.Entry::toString))
+                .containsExactlyElementsIn(Ginsu.map(xy.iterable(), Grid.Entry::toString)).inOrder();
+        assertThat(Ginsu.map(yx.toFlat().iterable(), Grid.Entry::toString))
+                .containsExactlyElementsIn(Ginsu.map(yx.iterable(), Grid.Entry::toString)).inOrder();
+
+        var sum = xy.map(yx, Integer::sum);
+        assertThat(Ginsu.map(sum.iterable(), e -> e.value))
+                .containsExactlyElementsIn(Ginsu.map(xy.combine(yx, Integer::sum).iterable(), e -> e.value)).inOrder();
+        assertThat(sum.get(1, 2).value.get()).isEqualTo(12);
+    }
 }
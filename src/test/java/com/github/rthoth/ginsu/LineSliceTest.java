@@ -0,0 +1,77 @@
+package com.github.rthoth.ginsu;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Lineal;
+import org.locationtech.jts.geom.MultiLineString;
+
+import java.util.ArrayList;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LineSliceTest extends AbstractTest implements Util {
+
+    private static Geometry union(Grid<MultiLineString> grid) {
+        var geometries = new ArrayList<Geometry>();
+        for (var entry : grid.iterable())
+            geometries.add(entry.value);
+
+        return GEOMETRY_FACTORY.buildGeometry(geometries).union();
+    }
+
+    private static int count(Grid<MultiLineString> grid) {
+        var count = 0;
+        for (var entry : grid.iterable())
+            count += entry.value.getNumGeometries();
+
+        return count;
+    }
+
+    @Test
+    public void l001() {
+        var lineString = parseWKT("LINESTRING (-8 -7, 7 -7, 7 7, -2 7, -2 -1)");
+        var slicer = new Slicer(new double[]{-6, -3, 3, 6}, new double[]{-8, -4, 0, 4, 8});
+        var grid = slicer.lineal((Lineal) lineString);
+        assertThat(union(grid).equalsTopo(lineString)).isTrue();
+        assertThat(count(grid)).isEqualTo(12);
+
+        var result = slicer.merger().lineal(grid, GEOMETRY_FACTORY);
+        assertThat(result.getNumGeometries()).isEqualTo(1);
+        assertThat(result.equalsTopo(lineString)).isTrue();
+    }
+
+    @Test
+    public void l002() {
+        // Along a knife, starting on another one.
+        var lineString = parseWKT("LINESTRING (-3 -6, -3 2, 5 2)");
+        var slicer = new Slicer(new double[]{-6, -3, 3, 6}, new double[]{-8, -4, 0, 4, 8});
+        var grid = slicer.lineal((Lineal) lineString);
+        assertThat(union(grid).equalsTopo(lineString)).isTrue();
+
+        var result = slicer.merger().lineal(grid, GEOMETRY_FACTORY);
+        assertThat(result.getNumGeometries()).isEqualTo(1);
+        assertThat(result.equalsTopo(lineString)).isTrue();
+    }
+
+    @Test
+    public void l003() {
+        // A closed line and a line which crosses it over a knife, the lines are not joined there.
+        var multiLineString = parseWKT("MULTILINESTRING ((-5 -5, 5 -5, 5 5, -5 5, -5 -5), (0 -7, 0 7))");
+        var slicer = new Slicer(new double[]{0}, new double[]{0});
+        var grid = slicer.lineal((Lineal) multiLineString);
+        assertThat(union(grid).equalsTopo(multiLineString)).isTrue();
+
+        var result = slicer.merger().lineal(grid, GEOMETRY_FACTORY);
+        assertThat(result.equalsTopo(multiLineString)).isTrue();
+        assertThat(result.getNumGeometries()).isAtMost(4);
+    }
+
+    @Test
+    public void l004() {
+        var lineString = parseWKT("LINESTRING (-8 -7, 7 -7, 7 7, -2 7, -2 -1)");
+        var slicer = new Slicer(new double[]{-6, -3, 3, 6}, new double[]{-8, -4, 0, 4, 8}).compact();
+        var result = slicer.merger().lineal(slicer.lineal((Lineal) lineString), GEOMETRY_FACTORY);
+        assertThat(result.getNumGeometries()).isEqualTo(1);
+        assertThat(result.equalsTopo(lineString)).isTrue();
+    }
+}
@@ -0,0 +1,204 @@
+package com.github.rthoth.ginsu;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.shape.fractal.KochSnowflakeBuilder;
+import org.pcollections.PVector;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ParallelTest extends AbstractTest implements Util {
+
+    Polygon create(int points, Envelope envelope) {
+        var builder = new KochSnowflakeBuilder(GEOMETRY_FACTORY);
+        builder.setExtent(envelope);
+        builder.setNumPoints(points);
+        return (Polygon) builder.getGeometry();
+    }
+
+    @Test
+    public void t01() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var b = create(20000, envelope(-990, 1010, -990, 1010));
+        var expected = a.difference(b);
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (var pattern : list(Parallel.grid(2, 2), Parallel.quantile(2, 2), Parallel.quantile(3, 1))) {
+                var result = Parallel.polygonal(pattern, 5000, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), executor)
+                        .toCompletableFuture().join();
+                assertThat(result.isValid()).isTrue();
+                assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void t02() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var b = create(20000, envelope(-990, 1010, -990, 1010));
+        var expected = a.difference(b);
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (var parallelism : list(1, 3)) {
+                var result = Parallel.polygonal(Parallel.grid(2, 2), 2000, parallelism, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), executor)
+                        .toCompletableFuture().join();
+                assertThat(result.isValid()).isTrue();
+                assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void t03() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var b = create(20000, envelope(-990, 1010, -990, 1010));
+        var expected = a.difference(b);
+
+        for (var pattern : list(Parallel.grid(2, 2), Parallel.quantile(3, 1))) {
+            var result = Parallel.blocking(pattern, 5000, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)));
+            assertThat(result.isValid()).isTrue();
+            assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6);
+        }
+    }
+
+    @Test
+    public void t04() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var b = create(20000, envelope(-990, 1010, -990, 1010));
+        var expected = a.difference(b);
+        var pool = new ForkJoinPool(4);
+
+        try {
+            for (var pattern : list(Parallel.grid(2, 2), Parallel.quantile(2, 2), Parallel.quantile(3, 1))) {
+                var result = Parallel.forkJoin(pattern, 2000, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), pool);
+                assertThat(result.isValid()).isTrue();
+                assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void t05() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var expected = a.buffer(25);
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            var operation = Parallel.Operation.unary(25, m -> toMultiPolygon(m.buffer(25)));
+            for (var pattern : list(Parallel.grid(2, 2), Parallel.quantile(2, 2))) {
+                var result = Parallel.apply(pattern, 5000, operation, list(a), executor).toCompletableFuture().join();
+                assertThat(result.isValid()).isTrue();
+                assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6 * expected.getArea());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void t06() {
+        var layers = list(
+                create(10000, envelope(-1000, 1000, -1000, 1000)),
+                create(10000, envelope(-990, 1010, -990, 1010)),
+                create(10000, envelope(-1010, 990, -990, 1010)));
+        var expected = layers.get(0).union(layers.get(1)).union(layers.get(2));
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            var operation = Parallel.Operation.nary(operands -> {
+                Geometry union = operands.get(0);
+                for (var i = 1; i < operands.size(); i++)
+                    union = union.union(operands.get(i));
+
+                return toMultiPolygon(union);
+            });
+
+            var result = Parallel.apply(Parallel.grid(2, 2), 5000, operation, layers, executor).toCompletableFuture().join();
+            assertThat(result.isValid()).isTrue();
+            assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void t07() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var b = create(20000, envelope(-990, 1010, -990, 1010));
+        Throwable thrown = null;
+
+        try {
+            Parallel.blocking(Parallel.grid(2, 2), 5000, a, b, (p1, p2) -> {
+                throw new InternalError("Cell!");
+            });
+        } catch (Throwable e) {
+            thrown = e;
+        }
+
+        // The same error on Java 11 and Java 21+, not wrapped.
+        assertThat(thrown).isInstanceOf(InternalError.class);
+    }
+
+    @Test
+    public void t08() {
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var expected = a.buffer(25);
+        var operation = new Parallel.Operation(25) {
+            @Override
+            protected MultiPolygon apply(PVector<MultiPolygon> operands) {
+                return toMultiPolygon(operands.get(0).buffer(25));
+            }
+        };
+        var pool = new ForkJoinPool(4);
+
+        try {
+            for (var pattern : list(Parallel.grid(2, 2), Parallel.quantile(2, 2))) {
+                for (var result : list(Parallel.blocking(pattern, 5000, operation, list(a)), Parallel.forkJoin(pattern, 5000, operation, list(a), pool))) {
+                    assertThat(result.isValid()).isTrue();
+                    assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6 * expected.getArea());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void t09() {
+        // The hole is inside the central cell, which touches no edge of the snowflake.
+        var a = create(20000, envelope(-1000, 1000, -1000, 1000));
+        var b = parsePolygon("POLYGON ((-10 -10, 10 -10, 10 10, -10 10, -10 -10))");
+        var expected = a.difference(b);
+        var pool = new ForkJoinPool(4);
+
+        try {
+            for (var result : list(Parallel.blocking(Parallel.grid(2, 2), 5000, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2))),
+                    Parallel.forkJoin(Parallel.grid(2, 2), 5000, a, b, (p1, p2) -> toMultiPolygon(p1.difference(p2)), pool))) {
+                assertThat(result.isValid()).isTrue();
+                assertThat(result.symDifference(expected).getArea()).isLessThan(1e-6);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void t10() {
+        var result = Parallel.apply(Parallel.grid(2, 2), 5000, Parallel.Operation.unary(m -> m), list(), Runnable::run);
+        assertThat(result.toCompletableFuture().isCompletedExceptionally()).isTrue();
+    }
+}
@@ -1,6 +1,14 @@
 package com.github.rthoth.ginsu;
 
 import org.junit.Test;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -21,6 +29,85 @@ public class PolygonMergeTest extends AbstractTest implements Util {
         assertThat(result.toText()).isEqualTo("MULTIPOLYGON (((-8 4, 2 -6, -1 -9, 8 -9, 8 0, 5 -3, -5 7, -8 4), (-3 1.4285714285714288, -1.8888888888888888 0, 1.2222222222222223 -4, 2 -5, 4 -6, 2 -8, 7 -8, 7 -3, 5 -5, 4 -3, 3 -2.2222222222222223, 0.1428571428571428 0, -3 2.4444444444444446, -5 4, -3 1.4285714285714288)))");
     }
 
+    @Test
+    public void dif02() {
+        var p1 = parsePolygon("POLYGON ((-8 4, 2 -6, -1 -9, 8 -9, 8 0, 5 -3, -5 7, -8 4))");
+        var p2 = parsePolygon("POLYGON ((-5 4, 2 -5, 4 -6, 2 -8, 7 -8, 7 -3, 5 -5, 4 -3, -5 4))");
+        var slicer = new Slicer(new double[]{-6, -3, 3, 6}, new double[]{-8, -4, 0, 4, 8});
+        var gI = slicer.polygonal(p1).combine(slicer.polygonal(p2), (m1, m2) -> toMultiPolygon(m1.difference(m2)));
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            var result = slicer.merger().polygonal(gI, GEOMETRY_FACTORY, executor).toCompletableFuture().join();
+            assertThat(result.toText()).isEqualTo(slicer.merger().polygonal(gI, GEOMETRY_FACTORY).toText());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void h001() {
+        var p1 = parsePolygon("POLYGON ((-8 4, 2 -6, -1 -9, 8 -9, 8 0, 5 -3, -5 7, -8 4))");
+        var p2 = parsePolygon("POLYGON ((-5 4, 2 -5, 4 -6, 2 -8, 7 -8, 7 -3, 5 -5, 4 -3, -5 4))");
+        var slicer = new Slicer(new double[]{-6, -3, 3, 6}, new double[]{-8, -4, 0, 4, 8});
+        var gI = slicer.polygonal(p1).combine(slicer.polygonal(p2), (m1, m2) -> toMultiPolygon(m1.difference(m2)));
+        var result = slicer.merger().hierarchical(gI, GEOMETRY_FACTORY);
+        assertThat(result.equalsTopo(slicer.merger().polygonal(gI, GEOMETRY_FACTORY))).isTrue();
+    }
+
+    @Test
+    public void h002() {
+        final var polygon = parseMultiPolygon("MULTIPOLYGON(((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6)), ((4 8, 8 8, 8 11, 4 11, 4 8)))");
+        final var slicer = new Slicer(new double[]{-3, -2, 1, 4, 8}, new double[]{-1, 1, 8, 10});
+        final var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            var restored = slicer.merger().hierarchical(slicer.polygonal(polygon), GEOMETRY_FACTORY, executor).toCompletableFuture().join();
+            assertThat(restored.equalsTopo(polygon)).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void h003() {
+        final var polygon = parsePolygon("POLYGON ((-2 -2, 2 -2, 2 2, -2 2, -2 -2))");
+        final var sliced = new Slicer(new double[]{0}, new double[]{0}).polygonal(polygon);
+        final var result = new Slicer(new double[]{-1, 1}, new double[]{0}).merger().hierarchical(sliced, GEOMETRY_FACTORY, Runnable::run);
+        assertThat(result.toCompletableFuture().isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    public void h004() {
+        // The holes don't touch the knives of the upper levels.
+        final var polygon = parsePolygon("POLYGON((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6))");
+        final var slicer = new Slicer(new double[]{-5, 1, 4}, new double[]{-1, 0});
+        assertThat(slicer.merger().hierarchical(slicer.polygonal(polygon), GEOMETRY_FACTORY).equalsTopo(polygon)).isTrue();
+
+        final var square = parsePolygon("POLYGON((-5 -5, 5 -5, 5 5, -5 5, -5 -5), (1 1, 2 1, 2 2, 1 2, 1 1))");
+        final var quadrants = new Slicer(new double[]{0}, new double[]{0});
+        assertThat(quadrants.merger().polygonal(quadrants.polygonal(square), GEOMETRY_FACTORY).equalsTopo(square)).isTrue();
+    }
+
+    @Test
+    public void h005() {
+        // The hole is inside an interior cell, whose shell lies on the knives.
+        final var polygon = parsePolygon("POLYGON((-80 -80, 80 -80, 80 80, -80 80, -80 -80), (31 31, 31 39, 39 39, 39 31, 31 31))");
+        final var slicer = new Slicer(new double[]{-60, -20, 0, 20, 60}, new double[]{-60, -20, 0, 20, 60});
+        final var grid = slicer.polygonal(polygon);
+        assertThat(slicer.merger().polygonal(grid, GEOMETRY_FACTORY).symDifference(polygon).getArea()).isLessThan(1e-9);
+        assertThat(slicer.merger().hierarchical(grid, GEOMETRY_FACTORY).symDifference(polygon).getArea()).isLessThan(1e-9);
+
+        final var polygons = new ArrayList<Polygon>();
+        final var incremental = slicer.merger().incremental(GEOMETRY_FACTORY, polygons::add);
+        for (var entry : grid.iterable())
+            incremental.add(entry.x, entry.y, MultiShape.of(entry.value));
+
+        incremental.finish();
+        assertThat(polygons).hasSize(1);
+        assertThat(polygons.get(0).symDifference(polygon).getArea()).isLessThan(1e-9);
+    }
+
     @Test
     public void i001() {
         final var polygon = parseMultiPolygon("MULTIPOLYGON (((0 4, -3 7, -3 -4, 0 -7, 0 4)), ((3 -11, 3 0, 0 3, 0 -8, 3 -11)))");
@@ -30,6 +117,76 @@ public class PolygonMergeTest extends AbstractTest implements Util {
         compareTopology().compare(restored, polygon);
     }
 
+    @Test
+    public void i002() {
+        final var polygon = parseMultiPolygon("MULTIPOLYGON(((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6)), ((4 8, 8 8, 8 11, 4 11, 4 8)), ((-2.5 8.5, -2.2 8.5, -2.2 9.5, -2.5 8.5)))");
+        final var slicer = new Slicer(new double[]{-3, -2, 1, 4, 8}, new double[]{-1, 1, 8, 10});
+        final var grid = slicer.polygonal(polygon);
+        final var entries = new ArrayList<Grid.Entry<MultiPolygon>>();
+        grid.iterable().forEach(entries::add);
+        Collections.reverse(entries);
+        final var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final var incremental = slicer.merger().incremental(GEOMETRY_FACTORY);
+            CompletableFuture.allOf(entries.stream()
+                    .map(entry -> CompletableFuture.runAsync(() -> incremental.add(entry.x, entry.y, MultiShape.of(entry.value)), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+            assertThat(incremental.finish().equalsTopo(polygon)).isTrue();
+
+            final var polygons = new ConcurrentLinkedQueue<Polygon>();
+            final var streaming = slicer.merger().incremental(GEOMETRY_FACTORY, polygons::add);
+            for (var entry : entries)
+                streaming.add(entry.x, entry.y, MultiShape.of(entry.value));
+
+            // Every cell is added, each polygon is emitted before the end.
+            assertThat(polygons).hasSize(3);
+            assertThat(streaming.finish().isEmpty()).isTrue();
+            assertThat(GEOMETRY_FACTORY.createMultiPolygon(polygons.toArray(Polygon[]::new)).equalsTopo(polygon)).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void i003() {
+        final var polygon = parseMultiPolygon("MULTIPOLYGON (((-10 -10, 10 -10, 10 10, -10 10, -10 -10), (-5 -5, -5 5, 5 5, 5 -5, -5 -5)), ((-2 -2, 2 -2, 2 2, -2 2, -2 -2)), ((12 -10, 20 -10, 20 -1, 12 -1, 12 -10)), ((12 1, 20 1, 20 10, 12 10, 12 1)), ((-8 12, -6 12, -6 14, -8 14, -8 12)))");
+        final var slicer = new Slicer(new double[]{0, 15}, new double[]{0, 13});
+        final var grid = slicer.polygonal(polygon);
+        final var polygons = new ArrayList<Polygon>();
+        final var incremental = slicer.merger().incremental(GEOMETRY_FACTORY, polygons::add);
+
+        for (var entry : grid.iterable())
+            incremental.add(entry.x, entry.y, MultiShape.of(entry.value));
+
+        assertThat(incremental.finish().isEmpty()).isTrue();
+        assertThat(polygons).hasSize(5);
+        // The frame and the small square inside its hole share no node, they are separate components.
+        assertThat(Ginsu.first(polygons, p -> p.getArea() == 16D).isPresent()).isTrue();
+        assertThat(Ginsu.first(polygons, p -> p.getNumInteriorRing() == 1).orElseThrow().getArea()).isEqualTo(300D);
+        assertThat(GEOMETRY_FACTORY.createMultiPolygon(polygons.toArray(Polygon[]::new)).equalsTopo(slicer.merger().polygonal(grid, GEOMETRY_FACTORY))).isTrue();
+    }
+
+    @Test
+    public void i004() {
+        final var polygon = parseMultiPolygon("MULTIPOLYGON (((-2 -2, 2 -2, 2 2, -2 2, -2 -2)), ((28 -2, 32 -2, 32 2, 28 2, 28 -2)))");
+        final var slicer = new Slicer(new double[]{0, 10, 20, 30}, new double[]{0});
+        final var grid = slicer.polygonal(polygon, Order.XY);
+        final var polygons = new ArrayList<Polygon>();
+        final var incremental = slicer.merger().incremental(GEOMETRY_FACTORY, polygons::add);
+
+        for (var x = 0; x < 5; x++) {
+            for (var y = 0; y < 2; y++)
+                incremental.add(x, y, MultiShape.of(grid.get(x, y).value.orElseThrow()));
+
+            // The first square is emitted once the cells around it are added, the second one waits for the last column.
+            assertThat(polygons).hasSize(x < 2 ? 0 : x < 4 ? 1 : 2);
+        }
+
+        assertThat(incremental.finish().isEmpty()).isTrue();
+        assertThat(GEOMETRY_FACTORY.createMultiPolygon(polygons.toArray(Polygon[]::new)).equalsTopo(polygon)).isTrue();
+    }
+
     @Test
     public void t01() {
         final var polygon = parseMultiPolygon("MULTIPOLYGON(((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6)), ((4 8, 8 8, 8 11, 4 11, 4 8)))");
@@ -42,4 +199,38 @@ public class PolygonMergeTest extends AbstractTest implements Util {
 //        println(restored.toText());
         compareTopology().compare(restored, polygon);
     }
+
+    @Test
+    public void t02() {
+        // A wide grid, the lanes are searched among 63 knives.
+        final var x = new double[63];
+        for (var i = 0; i < x.length; i++)
+            x[i] = -31 + i;
+
+        final var polygon = parsePolygon("POLYGON ((-40 -5, 40 -3, 35 6, 0 1, -38 7, -40 -5))");
+        final var slicer = new Slicer(x, new double[]{0});
+        final var restored = slicer.merger().polygonal(slicer.polygonal(polygon), GEOMETRY_FACTORY);
+        assertThat(restored.getNumGeometries()).isEqualTo(1);
+        assertThat(restored.symDifference(polygon).getArea()).isLessThan(1e-9);
+    }
+
+    @Test
+    public void t03() {
+        // The vertices on the first and the last knives.
+        final var polygon = parsePolygon("POLYGON ((-3 -4, 0 -6, 3 -4, 3 4, 0 6, -3 4, -3 -4))");
+        final var slicer = new Slicer(new double[]{-3, 0, 3}, new double[]{-4, 4});
+        assertThat(slicer.merger().polygonal(slicer.polygonal(polygon), GEOMETRY_FACTORY).equalsTopo(polygon)).isTrue();
+    }
+
+    @Test
+    public void t04() {
+        GinsuException thrown = null;
+        try {
+            new Merger(new double[]{1, -1}, new double[]{0});
+        } catch (GinsuException.InvalidSequence e) {
+            thrown = e;
+        }
+
+        assertThat(thrown).isNotNull();
+    }
 }
@@ -1,8 +1,13 @@
 package com.github.rthoth.ginsu;
 
 import org.junit.Test;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.pcollections.TreePVector;
 
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+
 import static com.google.common.truth.Truth.assertThat;
 
 public class PolygonSliceTest extends AbstractTest implements DetectionUtil, Util {
@@ -153,4 +158,96 @@ public class PolygonSliceTest extends AbstractTest implements DetectionUtil, Uti
                         "Entry(2, 0, MULTIPOLYGON (((4 -7, 7 -7, 7 -1, 5 -3, 4 -2, 4 -3, 5 -4, 4 -5, 4 -7))))"
                 );
     }
+
+    @Test
+    public void t05() {
+        final var polygon = parseMultiPolygon("MULTIPOLYGON (((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6)), ((10 10, 12 10, 12 12, 10 12, 10 10)))");
+        final var slicer = new Slicer(new double[]{-5, 1, 4, 11}, new double[]{-1, 0, 11});
+        final var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (var order : Order.values()) {
+                var expected = slicer.polygonal(polygon, order);
+                var actual = slicer.polygonal(polygon, order, executor).toCompletableFuture().join();
+                assertThat(Ginsu.map(actual.iterable(), Grid.Entry::toString))
+                        .containsExactlyElementsIn(Ginsu.map(expected.iterable(), Grid.Entry::toString)).inOrder();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void t06() {
+        final var polygon = parseMultiPolygon("MULTIPOLYGON (((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6)), ((10 10, 12 10, 12 12, 10 12, 10 10)))");
+
+        for (var slicer : list(new Slicer(new double[]{-5, 1, 4, 11}, new double[]{-1, 0, 11}), new Slicer(new double[]{1}, new double[]{}), new Slicer(new double[]{}, new double[]{}))) {
+            for (var order : Order.values()) {
+                var entries = new ArrayList<String>();
+                slicer.forEachPolygonal(polygon, order, entry -> entries.add(entry.toString()));
+                assertThat(entries)
+                        .containsExactlyElementsIn(Ginsu.map(slicer.polygonal(polygon, order).iterable(), Grid.Entry::toString));
+            }
+        }
+    }
+
+    @Test
+    public void t07() {
+        final var polygon = parsePolygon("POLYGON((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6))");
+        final var slicer = new Slicer(new double[]{-5, 1, 4}, new double[]{-1, 0});
+        final var compact = slicer.compact().polygonal(polygon);
+
+        assertThat(Ginsu.map(compact.iterable(), Grid.Entry::toString))
+                .containsExactlyElementsIn(Ginsu.map(slicer.polygonal(polygon).iterable(), Grid.Entry::toString)).inOrder();
+
+        for (var entry : compact.iterable()) {
+            for (var i = 0; i < entry.value.getNumGeometries(); i++) {
+                var cell = (Polygon) entry.value.getGeometryN(i);
+                assertThat(cell.getExteriorRing().getCoordinateSequence()).isInstanceOf(PackedCoordinateSequence.Double.class);
+                for (var j = 0; j < cell.getNumInteriorRing(); j++)
+                    assertThat(cell.getInteriorRingN(j).getCoordinateSequence()).isInstanceOf(PackedCoordinateSequence.Double.class);
+            }
+        }
+
+        final var merged = slicer.compact().merger().polygonal(compact, GEOMETRY_FACTORY);
+        assertThat(merged.equalsTopo(polygon)).isTrue();
+        assertThat(((Polygon) merged.getGeometryN(0)).getExteriorRing().getCoordinateSequence()).isInstanceOf(PackedCoordinateSequence.Double.class);
+
+        final var hierarchical = slicer.compact().merger().hierarchical(slicer.polygonal(polygon), GEOMETRY_FACTORY);
+        assertThat(hierarchical.equalsTopo(polygon)).isTrue();
+        assertThat(((Polygon) hierarchical.getGeometryN(0)).getExteriorRing().getCoordinateSequence()).isInstanceOf(PackedCoordinateSequence.Double.class);
+    }
+
+    @Test
+    public void t08() {
+        final var polygons = list(
+                parsePolygon("POLYGON((-5 7, -7 5, 3 -5, 1 -7, 7 -7, 7 -1, 5 -3, -5 7), (6 -3, 5 -5, 3 -6, 6 -6, 6 -3), (-5 6, -6 5, 4 -5, 5 -4, -5 6))"),
+                parsePolygon("POLYGON((10 10, 12 10, 12 12, 10 12, 10 10))"),
+                parsePolygon("POLYGON((-9 -9, -8 -9, -8 -8, -9 -8, -9 -9))"),
+                parsePolygon("POLYGON((2 -2, 3 -2, 3 3, 2 3, 2 -2))"));
+
+        for (var slicer : list(new Slicer(new double[]{-5, 1, 4, 11}, new double[]{-1, 0, 11}), new Slicer(new double[]{-5, 1, 4, 11}, new double[]{-1, 0, 11}).extrude(0.5), new Slicer(new double[]{1}, new double[]{}))) {
+            for (var order : Order.values()) {
+                var actual = Ginsu.map(slicer.polygonal(polygons, order)::iterator, grid -> Ginsu.map(grid.iterable(), Grid.Entry::toString));
+                var expected = Ginsu.map(polygons, polygon -> Ginsu.map(slicer.polygonal(polygon, order).iterable(), Grid.Entry::toString));
+                assertThat(actual).containsExactlyElementsIn(expected).inOrder();
+            }
+        }
+    }
+
+    @Test
+    public void t09() {
+        final var polygon = parsePolygon("POLYGON((2 2, 3 2, 3 3, 2 3, 2 2), (2.2 2.2, 2.2 2.8, 2.8 2.8, 2.8 2.2, 2.2 2.2))");
+        final var slicer = new Slicer(new double[]{-5, 1, 4, 11}, new double[]{-1, 0, 11});
+
+        for (var order : Order.values()) {
+            var grid = slicer.polygonal(polygon, order);
+            for (var entry : grid.iterable()) {
+                if (entry.x == 2 && entry.y == 2)
+                    assertThat(entry.value.equalsTopo(polygon)).isTrue();
+                else
+                    assertThat(entry.value.isEmpty()).isTrue();
+            }
+        }
+    }
 }
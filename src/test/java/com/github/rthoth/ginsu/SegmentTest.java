@@ -43,4 +43,26 @@ public class SegmentTest extends AbstractTest {
         assertThat(builder.build().toString())
                 .isEqualTo("(3,3 2,2 1,1 0,0 11,11 10,10 9,9)");
     }
+
+    @Test
+    public void t03() {
+        final var sequence = parseSequence("(0 0, 1 1, 2 2, 3 3, 4 4, 5 5, 6 6, 7 7, 8 8, 9 9, 10 10, 11 11, 0 0)");
+        var builder = new CSBuilder();
+        builder.addForward(0, 2, sequence);
+        builder.addBackward(5, 3, sequence);
+        builder.addForward(10, 1, sequence);
+        builder.addBackward(2, 7, sequence);
+        var segmented = builder.build();
+        assertThat(segmented.toString())
+                .isEqualTo("(0,0 1,1 2,2 5,5 4,4 3,3 10,10 11,11 0,0 1,1 2,2 1,1 0,0 11,11 10,10 9,9 8,8 7,7)");
+
+        var forward = segmented.toCoordinateArray();
+        for (var i = segmented.size() - 1; i >= 0; i--) {
+            assertThat(segmented.getX(i)).isEqualTo(forward[i].getX());
+            assertThat(segmented.getY(i)).isEqualTo(forward[i].getY());
+        }
+
+        for (var i : new int[]{17, 0, 9, 3, 12, 6, 6, 7, 1})
+            assertThat(segmented.getCoordinate(i)).isEqualTo(forward[i]);
+    }
 }